@@ -0,0 +1,446 @@
+package com.jaouan.revealatorlib;
+
+import android.annotation.TargetApi;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.support.v4.content.ContextCompat;
+import android.support.v7.app.AppCompatActivity;
+import android.view.Choreographer;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.Spinner;
+import android.widget.TextView;
+
+import com.jaouan.revealator.RevealContainer;
+import com.jaouan.revealator.RevealSession;
+import com.jaouan.revealator.RevealSpec;
+import com.jaouan.revealator.UnrevealSpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.codetail.widget.RevealFrameLayout;
+
+/**
+ * Repeats reveal/unreveal cycles with a configurable workload, and shows frame times and allocations.
+ * <p/>
+ * Modes compare childs strategies of the ticker engine only. The legacy animation engine was removed, so there is no engine toggle nor baseline to compare with :
+ * compare runs against numbers recorded with an older release instead.
+ */
+public class BenchmarkActivity extends AppCompatActivity {
+
+    // - Order matches R.array.benchmark_modes.
+    private static final int MODE_LEAF_CHILDS = 0;
+    private static final int MODE_ROW_GROUPING = 1;
+    private static final int MODE_PARENT_GROUPING = 2;
+    private static final int MODE_REVEAL_CONTAINER = 3;
+
+    private static final long OVERLAY_REFRESH_INTERVAL = 500;
+
+    /**
+     * A frame lasting longer than this many refresh periods is a jank frame.
+     */
+    private static final float JANK_FRAME_PERIODS = 1.5f;
+
+    private static final float DEFAULT_REFRESH_RATE = 60;
+
+    private static final int PANELS_PER_ROW = 2;
+
+    private Spinner childsCountSpinner;
+
+    private Spinner depthSpinner;
+
+    private Spinner concurrencySpinner;
+
+    private Spinner modeSpinner;
+
+    private CheckBox backgroundPlanCheckBox;
+
+    private CheckBox reuseSessionsCheckBox;
+
+    private Button runButton;
+
+    private LinearLayout stage;
+
+    private TextView overlay;
+
+    private final List<Panel> panels = new ArrayList<>();
+
+    private ExecutorService planExecutor;
+
+    private RevealSpec revealSpec;
+
+    private UnrevealSpec unrevealSpec;
+
+    private boolean reuseSessions;
+
+    private boolean running;
+
+    private int cycles;
+
+    private FrameStats frameStats;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_benchmark);
+
+        childsCountSpinner = (Spinner) findViewById(R.id.benchmark_childs_count);
+        depthSpinner = (Spinner) findViewById(R.id.benchmark_depth);
+        concurrencySpinner = (Spinner) findViewById(R.id.benchmark_concurrency);
+        modeSpinner = (Spinner) findViewById(R.id.benchmark_mode);
+        backgroundPlanCheckBox = (CheckBox) findViewById(R.id.benchmark_background_plan);
+        reuseSessionsCheckBox = (CheckBox) findViewById(R.id.benchmark_reuse_sessions);
+        runButton = (Button) findViewById(R.id.benchmark_run);
+        stage = (LinearLayout) findViewById(R.id.benchmark_stage);
+        overlay = (TextView) findViewById(R.id.benchmark_overlay);
+
+        childsCountSpinner.setSelection(1);
+        planExecutor = Executors.newSingleThreadExecutor();
+
+        runButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                if (running) {
+                    stop();
+                } else {
+                    start();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            frameStats = new FrameStats();
+            frameStats.start();
+        } else {
+            overlay.setText(getString(R.string.benchmark_overlay_unsupported, cycles));
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        stop();
+        if (frameStats != null) {
+            frameStats.stop();
+            frameStats = null;
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        planExecutor.shutdown();
+    }
+
+    /**
+     * Builds the workload, then starts cycles once it is laid out.
+     */
+    private void start() {
+        running = true;
+        cycles = 0;
+        runButton.setText(R.string.benchmark_stop);
+
+        final int childsCount = getSelectedInt(childsCountSpinner);
+        final int depth = getSelectedInt(depthSpinner);
+        final int concurrency = getSelectedInt(concurrencySpinner);
+        final int mode = modeSpinner.getSelectedItemPosition();
+        reuseSessions = reuseSessionsCheckBox.isChecked();
+
+        final RevealSpec.Builder revealSpecBuilder = new RevealSpec.Builder()
+                .withCurvedTranslation()
+                .withChildsAnimation()
+                .withDelayBetweenChildAnimation(10);
+        if (mode == MODE_ROW_GROUPING) {
+            revealSpecBuilder.withChildsGrouping(RevealSpec.CHILDS_GROUPING_ROW);
+        } else if (mode == MODE_PARENT_GROUPING) {
+            revealSpecBuilder.withChildsGrouping(RevealSpec.CHILDS_GROUPING_PARENT);
+        }
+        if (backgroundPlanCheckBox.isChecked()) {
+            revealSpecBuilder.withPrecomputeExecutor(planExecutor);
+        }
+        revealSpec = revealSpecBuilder.build();
+        unrevealSpec = new UnrevealSpec.Builder()
+                .withCurvedTranslation()
+                .build();
+
+        // - Build panels slots, then panels childs once slots size is known.
+        buildSlots(concurrency, mode == MODE_REVEAL_CONTAINER);
+        stage.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
+            @SuppressWarnings("deprecation")
+            @Override
+            public void onGlobalLayout() {
+                stage.getViewTreeObserver().removeGlobalOnLayoutListener(this);
+                if (!running) {
+                    return;
+                }
+                for (final Panel panel : panels) {
+                    buildChilds(panel, childsCount, depth);
+                }
+                for (final Panel panel : panels) {
+                    reveal(panel);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops cycles. Running animations end normally.
+     */
+    private void stop() {
+        running = false;
+        runButton.setText(R.string.benchmark_start);
+    }
+
+    /**
+     * Get selected integer of a spinner.
+     *
+     * @param spinner Spinner.
+     * @return Integer.
+     */
+    private static int getSelectedInt(final Spinner spinner) {
+        return Integer.parseInt(spinner.getSelectedItem().toString());
+    }
+
+    /**
+     * Builds the panels slots, PANELS_PER_ROW by row.
+     *
+     * @param concurrency     Panels count.
+     * @param revealContainer True if panels are reveal containers.
+     */
+    private void buildSlots(final int concurrency, final boolean revealContainer) {
+        // - Previous panels may still be animating, they just stop cycling.
+        for (final Panel panel : panels) {
+            panel.active = false;
+        }
+        stage.removeAllViews();
+        panels.clear();
+
+        final int fromViewSize = getResources().getDimensionPixelSize(R.dimen.fab_margin) * 2;
+        LinearLayout row = null;
+        for (int panelIndex = 0; panelIndex < concurrency; panelIndex++) {
+            if (panelIndex % PANELS_PER_ROW == 0) {
+                row = new LinearLayout(this);
+                row.setOrientation(LinearLayout.HORIZONTAL);
+                stage.addView(row, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1));
+            }
+
+            final FrameLayout slot = new FrameLayout(this);
+            row.addView(slot, new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.MATCH_PARENT, 1));
+
+            final RevealFrameLayout revealFrameLayout = new RevealFrameLayout(this);
+            slot.addView(revealFrameLayout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+            final Panel panel = new Panel();
+            panel.active = true;
+            panel.revealView = revealContainer ? new RevealContainer(this) : new FrameLayout(this);
+            panel.revealView.setBackgroundColor(ContextCompat.getColor(this, R.color.colorPrimary));
+            panel.revealView.setVisibility(View.INVISIBLE);
+            revealFrameLayout.addView(panel.revealView, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+            panel.fromView = new View(this);
+            panel.fromView.setBackgroundColor(ContextCompat.getColor(this, R.color.colorAccent));
+            final FrameLayout.LayoutParams fromViewLayoutParams = new FrameLayout.LayoutParams(fromViewSize, fromViewSize);
+            fromViewLayoutParams.gravity = Gravity.BOTTOM | Gravity.END;
+            slot.addView(panel.fromView, fromViewLayoutParams);
+
+            // - Cycle actions are allocated once, so they don't count in allocations.
+            panel.unrevealAction = new Runnable() {
+                @Override
+                public void run() {
+                    unrevealSpec.unreveal(panel.revealView, panel.fromView, panel.revealAction);
+                }
+            };
+            panel.revealAction = new Runnable() {
+                @Override
+                public void run() {
+                    cycles++;
+                    if (running && panel.active) {
+                        reveal(panel);
+                    }
+                }
+            };
+            panels.add(panel);
+        }
+    }
+
+    /**
+     * Builds panel's childs as a grid of cells, each leaf nested in (depth - 1) view groups.
+     *
+     * @param panel       Panel.
+     * @param childsCount Childs count.
+     * @param depth       Nesting depth.
+     */
+    private void buildChilds(final Panel panel, final int childsCount, final int depth) {
+        final int width = panel.revealView.getWidth();
+        final int height = panel.revealView.getHeight();
+        final int columns = Math.max(1, (int) Math.ceil(Math.sqrt(childsCount * width / (double) Math.max(1, height))));
+        final int rows = (int) Math.ceil(childsCount / (double) columns);
+        final int cellWidth = width / columns;
+        final int cellHeight = height / Math.max(1, rows);
+        final int cellMargin = Math.max(1, Math.min(cellWidth, cellHeight) / 10);
+
+        for (int childIndex = 0; childIndex < childsCount; childIndex++) {
+            final FrameLayout.LayoutParams cellLayoutParams = new FrameLayout.LayoutParams(cellWidth, cellHeight);
+            cellLayoutParams.leftMargin = (childIndex % columns) * cellWidth;
+            cellLayoutParams.topMargin = (childIndex / columns) * cellHeight;
+
+            final View leaf = new View(this);
+            leaf.setBackgroundColor(childIndex % 2 == 0 ? Color.WHITE : Color.LTGRAY);
+            View cell = leaf;
+            for (int level = 1; level < depth; level++) {
+                final FrameLayout nestingLayout = new FrameLayout(this);
+                nestingLayout.addView(cell, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                cell = nestingLayout;
+            }
+            cell.setPadding(cellMargin, cellMargin, cellMargin, cellMargin);
+            if (cell == leaf) {
+                // - A leaf's padding doesn't shrink its background, so margins are used.
+                cellLayoutParams.width -= cellMargin * 2;
+                cellLayoutParams.height -= cellMargin * 2;
+                cellLayoutParams.leftMargin += cellMargin;
+                cellLayoutParams.topMargin += cellMargin;
+            }
+            panel.revealView.addView(cell, cellLayoutParams);
+        }
+    }
+
+    /**
+     * Reveals a panel, and unreveals it once revealed. Unreveal waits for childs animation's end.
+     *
+     * @param panel Panel.
+     */
+    private void reveal(final Panel panel) {
+        if (reuseSessions && panel.session != null) {
+            panel.session.reveal(panel.unrevealAction);
+        } else {
+            panel.session = revealSpec.reveal(panel.revealView, panel.fromView, panel.unrevealAction);
+        }
+    }
+
+    /**
+     * Benchmarked panel.
+     */
+    private static class Panel {
+
+        private boolean active;
+
+        private ViewGroup revealView;
+
+        private View fromView;
+
+        private RevealSession session;
+
+        private Runnable unrevealAction;
+
+        private Runnable revealAction;
+
+    }
+
+    /**
+     * Frame times and UI thread allocations, shown by the overlay.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class FrameStats implements Choreographer.FrameCallback {
+
+        private boolean started;
+
+        private long lastFrameTimeNanos;
+
+        private long lastRefreshTime;
+
+        private int lastAllocCount;
+
+        private int framesCount;
+
+        private long framesDurationNanos;
+
+        private long maxFrameDurationNanos;
+
+        private int jankFramesCount;
+
+        private float refreshRate;
+
+        private long jankFrameNanos;
+
+        @SuppressWarnings("deprecation")
+        void start() {
+            started = true;
+            lastFrameTimeNanos = 0;
+            // - Jank threshold follows the display, so one dropped frame counts at 90Hz or 120Hz too.
+            refreshRate = getWindowManager().getDefaultDisplay().getRefreshRate();
+            if (refreshRate <= 0) {
+                refreshRate = DEFAULT_REFRESH_RATE;
+            }
+            jankFrameNanos = (long) (JANK_FRAME_PERIODS * 1000000000L / refreshRate);
+            lastRefreshTime = SystemClock.uptimeMillis();
+            Debug.startAllocCounting();
+            lastAllocCount = Debug.getThreadAllocCount();
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @SuppressWarnings("deprecation")
+        void stop() {
+            started = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+            Debug.stopAllocCounting();
+        }
+
+        @SuppressWarnings("deprecation")
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!started) {
+                return;
+            }
+            if (lastFrameTimeNanos > 0) {
+                final long frameDurationNanos = frameTimeNanos - lastFrameTimeNanos;
+                framesCount++;
+                framesDurationNanos += frameDurationNanos;
+                maxFrameDurationNanos = Math.max(maxFrameDurationNanos, frameDurationNanos);
+                if (frameDurationNanos > jankFrameNanos) {
+                    jankFramesCount++;
+                }
+            }
+            lastFrameTimeNanos = frameTimeNanos;
+
+            // - Overlay text allocates a bit too, but only twice a second.
+            final long now = SystemClock.uptimeMillis();
+            if (now - lastRefreshTime >= OVERLAY_REFRESH_INTERVAL && framesCount > 0) {
+                final int allocCount = Debug.getThreadAllocCount();
+                final long elapsedTime = now - lastRefreshTime;
+                overlay.setText(getString(R.string.benchmark_overlay,
+                        (int) (framesCount * 1000 / elapsedTime),
+                        framesDurationNanos / (double) framesCount / 1000000,
+                        maxFrameDurationNanos / 1000000d,
+                        jankFramesCount,
+                        (int) ((allocCount - lastAllocCount) * 1000L / elapsedTime),
+                        cycles,
+                        refreshRate));
+                lastRefreshTime = now;
+                lastAllocCount = Debug.getThreadAllocCount();
+                framesCount = 0;
+                framesDurationNanos = 0;
+                maxFrameDurationNanos = 0;
+                jankFramesCount = 0;
+            }
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.jaouan.revealatorlib;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.support.design.widget.FloatingActionButton;
 import android.support.design.widget.Snackbar;
@@ -90,8 +91,8 @@ public class ExempleActivity extends AppCompatActivity {
         // as you specify a parent activity in AndroidManifest.xml.
         int id = item.getItemId();
 
-        //noinspection SimplifiableIfStatement
-        if (id == R.id.action_settings) {
+        if (id == R.id.action_benchmark) {
+            startActivity(new Intent(this, BenchmarkActivity.class));
             return true;
         }
         return super.onOptionsItemSelected(item);
@@ -0,0 +1,89 @@
+package com.jaouan.revealator;
+
+import android.graphics.PointF;
+import android.view.animation.Interpolator;
+
+/**
+ * Sampled translation curve.
+ * <p/>
+ * Stores, for sampled times, the weights of the control point and of the end point in the quadratic Bezier curve, interpolator included.
+ * Weights do not depend on the translated views, so a table can be shared by any translation with the same interpolator.
+ */
+final class CurveTable {
+
+    private final float mFrameDuration;
+
+    private final float[] mControlWeights;
+
+    private final float[] mEndWeights;
+
+    /**
+     * Curve table's constructor.
+     *
+     * @param interpolator  Translation interpolator.
+     * @param curved        True for a quadratic Bezier curve, false for a straight line.
+     * @param samplesCount  Samples count. At least 2.
+     * @param frameDuration Frame duration the table is sampled for.
+     */
+    CurveTable(final Interpolator interpolator, final boolean curved, final int samplesCount, final float frameDuration) {
+        mFrameDuration = frameDuration;
+        mControlWeights = new float[samplesCount];
+        mEndWeights = new float[samplesCount];
+        for (int sampleIndex = 0; sampleIndex < samplesCount; sampleIndex++) {
+            final float interpolatedTime = interpolator.getInterpolation(sampleIndex / (float) (samplesCount - 1));
+            if (curved) {
+                mControlWeights[sampleIndex] = 2 * (1 - interpolatedTime) * interpolatedTime;
+                mEndWeights[sampleIndex] = interpolatedTime * interpolatedTime;
+            } else {
+                mEndWeights[sampleIndex] = interpolatedTime;
+            }
+        }
+    }
+
+    /**
+     * Creates a curve table with one sample per frame.
+     *
+     * @param interpolator  Translation interpolator.
+     * @param curved        True for a quadratic Bezier curve, false for a straight line.
+     * @param duration      Translation duration.
+     * @param frameDuration Frame duration, from the display refresh rate.
+     * @return Curve table.
+     */
+    static CurveTable create(final Interpolator interpolator, final boolean curved, final long duration, final float frameDuration) {
+        return new CurveTable(interpolator, curved, RevealatorFramePacing.getFramesCount(duration, frameDuration) + 1, frameDuration);
+    }
+
+    /**
+     * Get frame duration the table is sampled for.
+     *
+     * @return Frame duration.
+     */
+    float getFrameDuration() {
+        return mFrameDuration;
+    }
+
+    /**
+     * Evaluates the position on the curve.
+     *
+     * @param time     Time, between 0 and 1.
+     * @param startX   Start point X.
+     * @param startY   Start point Y.
+     * @param controlX Control point X. Ignored by straight lines.
+     * @param controlY Control point Y. Ignored by straight lines.
+     * @param endX     End point X.
+     * @param endY     End point Y.
+     * @param position Evaluated position.
+     */
+    void evaluate(final float time, final float startX, final float startY, final float controlX, final float controlY, final float endX, final float endY, final PointF position) {
+        // - Linear interpolation between the two nearest samples.
+        final float sample = Math.min(1, Math.max(0, time)) * (mEndWeights.length - 1);
+        final int sampleIndex = Math.min((int) sample, mEndWeights.length - 2);
+        final float sampleFraction = sample - sampleIndex;
+        final float controlWeight = mControlWeights[sampleIndex] + (mControlWeights[sampleIndex + 1] - mControlWeights[sampleIndex]) * sampleFraction;
+        final float endWeight = mEndWeights[sampleIndex] + (mEndWeights[sampleIndex + 1] - mEndWeights[sampleIndex]) * sampleFraction;
+
+        position.x = startX + controlWeight * (controlX - startX) + endWeight * (endX - startX);
+        position.y = startY + controlWeight * (controlY - startY) + endWeight * (endY - startY);
+    }
+
+}
@@ -0,0 +1,600 @@
+package com.jaouan.revealator;
+
+import android.animation.Animator;
+import android.graphics.PointF;
+import android.view.View;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Reveal animation, ticked by the {@link RevealatorTicker}.
+ * <p/>
+ * Phases : "from view" translation, circular reveal, then childs animation.
+ */
+final class RevealAnimation implements RevealatorTicker.Tickable {
+
+    private static final int PHASE_NOT_STARTED = -1;
+    private static final int PHASE_TRANSLATE = RevealListener.PHASE_TRANSLATE;
+    private static final int PHASE_REVEAL = RevealListener.PHASE_REVEAL;
+    private static final int PHASE_CHILDS = RevealListener.PHASE_CHILDS;
+    private static final int PHASE_ENDED = -2;
+
+    /**
+     * Waiting for the layout of the view to reveal, between translation and reveal. Not notified to listeners.
+     */
+    private static final int PHASE_INFLATE = -3;
+
+    /**
+     * Frames waited for the attached layout to be laid out before finding its childs.
+     */
+    private static final int MAX_INFLATE_LAYOUT_FRAMES = 3;
+
+    private static final Interpolator TRANSLATE_INTERPOLATOR = new AccelerateInterpolator();
+    private static final Interpolator HIDE_INTERPOLATOR = new AccelerateInterpolator();
+    private static final Interpolator REVEAL_INTERPOLATOR = new DecelerateInterpolator();
+    private static final Interpolator CHILD_INTERPOLATOR = new DecelerateInterpolator();
+
+    private final View mViewToReveal;
+
+    private final View mFromView;
+
+    private final int mTranslateDuration;
+
+    private final int mRevealDuration;
+
+    private final long mChildAnimationDuration;
+
+    private final PointF mCurveControlPoint;
+
+    private final float mHideFromViewAtInterpolatedTime;
+
+    private final RevealSession mSession;
+
+    private final RevealGeometry mGeometry;
+
+    private final RevealContainer mChildsContainer;
+
+    private Runnable mEndAction;
+
+    private RevealListener mListener;
+
+    private RevealPlan.Task mPlanTask;
+
+    private RevealPlan mPlan;
+
+    private View[] mChildsViews;
+
+    private int[] mChildsIndexes;
+
+    private boolean mChildsGroupPivots;
+
+    /**
+     * Scale of each group on last frame. Childs of a group are only updated when it changes.
+     */
+    private float[] mGroupsScales;
+
+    private boolean[] mGroupsChanged;
+
+    private float[] mChildsScaleX;
+
+    private float[] mChildsScaleY;
+
+    private float[] mChildsTranslationX;
+
+    private float[] mChildsTranslationY;
+
+    private float[] mChildsPivotDeltaX;
+
+    private float[] mChildsPivotDeltaY;
+
+    private int mPhase = PHASE_NOT_STARTED;
+
+    private boolean mInflating;
+
+    private int mInflateLayoutFrames;
+
+    private long mPhaseStartTime;
+
+    private long mStartTime;
+
+    private float mFrameDuration;
+
+    private float mTranslateDeltaX;
+
+    private float mTranslateDeltaY;
+
+    private float mTranslateControlX;
+
+    private float mTranslateControlY;
+
+    private CurveTable mTranslateCurveTable;
+
+    private final PointF mTranslatePosition = new PointF();
+
+    private float mFromViewTranslationX;
+
+    private float mFromViewTranslationY;
+
+    private float mFromViewScaleX;
+
+    private float mFromViewScaleY;
+
+    private Animator mRevealAnimator;
+
+    private int mTraceCookie = RevealatorTrace.NO_COOKIE;
+
+    /**
+     * Reveal animation's constructor. Animation must be prepared before each start.
+     *
+     * @param session Reveal session.
+     */
+    RevealAnimation(final RevealSession session) {
+        final RevealSpec spec = session.getSpec();
+        mSession = session;
+        mViewToReveal = session.getViewToReveal();
+        mFromView = session.getFromView();
+        mTranslateDuration = spec.getTranslateDuration();
+        mRevealDuration = spec.getRevealDuration();
+        mChildsContainer = session.getChildsContainer();
+        mChildAnimationDuration = spec.getChildAnimationDuration();
+        mCurveControlPoint = spec.getCurveControlPoint();
+        mHideFromViewAtInterpolatedTime = Math.min(1, Math.max(0, spec.getHideFromViewAtInterpolatedTime()));
+        mGeometry = session.getGeometry();
+    }
+
+    /**
+     * Prepares the animation to start, as it is reused by its session once ended.
+     *
+     * @param planTask  Reveal plan task, maybe running in background.
+     * @param endAction End action. Can be null.
+     * @param listener  Listener. Can be null.
+     */
+    void prepare(final RevealPlan.Task planTask, final Runnable endAction, final RevealListener listener) {
+        // - Childs are already hidden, and may have been found again since last start.
+        refreshChilds(planTask);
+        mInflating = mSession.isInflating();
+        mInflateLayoutFrames = 0;
+        mFrameDuration = RevealatorFramePacing.getFrameDuration();
+        mEndAction = endAction;
+        mListener = listener;
+        mPhase = PHASE_NOT_STARTED;
+        mTraceCookie = RevealatorTrace.NO_COOKIE;
+    }
+
+    /**
+     * Takes the childs and the plan task of the session.
+     *
+     * @param planTask Reveal plan task, maybe running in background.
+     */
+    private void refreshChilds(final RevealPlan.Task planTask) {
+        final View[] childsViews = mSession.getChildsViewsArray();
+        if (childsViews != mChildsViews) {
+            mChildsViews = childsViews;
+            mChildsIndexes = mChildsContainer != null ? findChildsIndexes(mChildsContainer, mChildsViews) : null;
+        }
+        mPlanTask = planTask;
+        mPlan = null;
+    }
+
+    /**
+     * Attaches the inflated layout, and finds its childs once laid out.
+     *
+     * @return True if childs are ready to be revealed.
+     */
+    private boolean awaitInflatedLayout() {
+        if (!mSession.attachInflatedLayout(false)) {
+            return false;
+        }
+        // - Childs bounds and pivots are known once the layout is laid out, which takes a frame or two.
+        if (mViewToReveal.isLayoutRequested() && mInflateLayoutFrames++ < MAX_INFLATE_LAYOUT_FRAMES) {
+            return false;
+        }
+        mSession.prepareInflatedChilds();
+        refreshChilds(mSession.getPlanTask());
+        mInflating = false;
+        return true;
+    }
+
+    /**
+     * Finds the indexes of childs in their container, as childs are ordered like the container's ones.
+     *
+     * @param container   Container.
+     * @param childsViews Childs.
+     * @return Indexes. -1 if a child is not in the container anymore.
+     */
+    private static int[] findChildsIndexes(final RevealContainer container, final View[] childsViews) {
+        final int[] childsIndexes = new int[childsViews.length];
+        final int containerChildCount = container.getChildCount();
+        int containerChildIndex = 0;
+        for (int childIndex = 0; childIndex < childsViews.length; childIndex++) {
+            while (containerChildIndex < containerChildCount && container.getChildAt(containerChildIndex) != childsViews[childIndex]) {
+                containerChildIndex++;
+            }
+            childsIndexes[childIndex] = containerChildIndex < containerChildCount ? containerChildIndex++ : -1;
+        }
+        return childsIndexes;
+    }
+
+    /**
+     * Creates the curve table of the "from view" translation.
+     *
+     * @param curvedTranslation Curved translation.
+     * @param translateDuration Translate duration.
+     * @param frameDuration     Frame duration.
+     * @return Curve table.
+     */
+    static CurveTable createTranslateCurveTable(final boolean curvedTranslation, final long translateDuration, final float frameDuration) {
+        return CurveTable.create(TRANSLATE_INTERPOLATOR, curvedTranslation, translateDuration, frameDuration);
+    }
+
+    @Override
+    public boolean onFrame(final long frameTimeNanos) {
+        final long frameTime = frameTimeNanos / RevealatorHelper.NANOS_PER_MILLI;
+        if (mPhase == PHASE_NOT_STARTED) {
+            mTraceCookie = RevealatorTrace.beginAsyncSection(RevealatorTrace.ASYNC_SECTION_REVEAL);
+            mStartTime = frameTime;
+            enterPhase(mFromView != null ? PHASE_TRANSLATE : PHASE_REVEAL, frameTime);
+            notifyPhaseStart();
+        } else if (mPhase == PHASE_TRANSLATE && mInflating) {
+            // - Attach layout as soon as inflated, so it is laid out before the reveal.
+            mSession.attachInflatedLayout(false);
+        }
+        if (mPhase == PHASE_INFLATE) {
+            if (!awaitInflatedLayout()) {
+                return true;
+            }
+            enterPhase(PHASE_REVEAL, frameTime);
+            notifyPhaseStart();
+        }
+
+        while (mPhase != PHASE_ENDED) {
+            if (mPhase == PHASE_INFLATE) {
+                return true;
+            }
+            final long phaseDuration = getPhaseDuration();
+            final long elapsedTime = frameTime - mPhaseStartTime;
+            applyPhase(Math.min(elapsedTime, phaseDuration));
+            if (mListener != null) {
+                mListener.onProgress(mPhase, phaseDuration > 0 ? Math.min(1, elapsedTime / (float) phaseDuration) : 1);
+            }
+            if (elapsedTime < phaseDuration) {
+                return true;
+            }
+
+            // - Next phase starts on the vsync boundary nearest to the previous one's end, whatever the frame time is.
+            final int endedPhase = mPhase;
+            endPhase();
+            if (endedPhase == PHASE_TRANSLATE && mListener != null) {
+                mListener.onTranslateEnd();
+            }
+            enterPhase(nextPhase(endedPhase), RevealatorFramePacing.snapTime(mPhaseStartTime + phaseDuration, mStartTime, frameTime, mFrameDuration));
+            if (endedPhase == PHASE_REVEAL && mEndAction != null) {
+                mEndAction.run();
+            }
+            notifyPhaseStart();
+        }
+        RevealatorTrace.endAsyncSection(RevealatorTrace.ASYNC_SECTION_REVEAL, mTraceCookie);
+        RevealState.obtain(mViewToReveal).onSettled(this);
+        return false;
+    }
+
+    @Override
+    public void onCancel() {
+        // - Jump to final state, without firing end action. Next phases are not entered, as views may be detached.
+        if (mInflating) {
+            mSession.attachInflatedLayout(true);
+            mInflating = false;
+        }
+        if (mPhase != PHASE_ENDED) {
+            final int canceledPhase = mPhase;
+            endPhase();
+            if (canceledPhase != PHASE_CHILDS) {
+                mViewToReveal.setVisibility(View.VISIBLE);
+                if (mFromView != null) {
+                    mFromView.setVisibility(View.INVISIBLE);
+                }
+                showChildsViews();
+            }
+        }
+        mPhase = PHASE_ENDED;
+        RevealatorTrace.endAsyncSection(RevealatorTrace.ASYNC_SECTION_REVEAL, mTraceCookie);
+        mTraceCookie = RevealatorTrace.NO_COOKIE;
+        RevealState.obtain(mViewToReveal).onSettled(this);
+    }
+
+    /**
+     * Notifies the listener that current phase starts, if any.
+     */
+    private void notifyPhaseStart() {
+        if (mListener != null && mPhase >= 0) {
+            mListener.onPhaseStart(mPhase);
+        }
+    }
+
+    /**
+     * Get the reveal plan, once ready or computed synchronously.
+     *
+     * @return Plan.
+     */
+    private RevealPlan getPlan() {
+        if (mPlan == null) {
+            mPlan = mPlanTask.getPlan();
+        }
+        return mPlan;
+    }
+
+    /**
+     * Determines the phase following another one.
+     *
+     * @param phase Ended phase.
+     * @return Next phase.
+     */
+    private int nextPhase(final int phase) {
+        switch (phase) {
+            case PHASE_TRANSLATE:
+                return PHASE_REVEAL;
+            case PHASE_REVEAL:
+                return mChildsViews.length == 0 ? PHASE_ENDED : PHASE_CHILDS;
+            default:
+                return PHASE_ENDED;
+        }
+    }
+
+    /**
+     * Get current phase duration.
+     *
+     * @return Phase duration.
+     */
+    private long getPhaseDuration() {
+        switch (mPhase) {
+            case PHASE_TRANSLATE:
+                return mTranslateDuration;
+            case PHASE_REVEAL:
+                return mRevealDuration;
+            case PHASE_CHILDS:
+                return getPlan().getChildsDuration();
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Enters a phase.
+     *
+     * @param phase          Phase.
+     * @param phaseStartTime Phase start time.
+     */
+    private void enterPhase(final int phase, final long phaseStartTime) {
+        // - Reveal waits for the layout to inflate, if not ready yet.
+        if (phase == PHASE_REVEAL && mInflating && !awaitInflatedLayout()) {
+            mPhase = PHASE_INFLATE;
+            return;
+        }
+        mPhase = phase;
+        mPhaseStartTime = phaseStartTime;
+        switch (phase) {
+            case PHASE_TRANSLATE:
+                // - Determine translate delta.
+                mGeometry.ensureValid();
+                mTranslateDeltaX = mGeometry.getTranslateDeltaX();
+                mTranslateDeltaY = mGeometry.getTranslateDeltaY();
+                // - Define the cross of the two tangents from point 0 and point 1 as control point if necessary.
+                mTranslateControlX = mCurveControlPoint != null ? mCurveControlPoint.x : 0;
+                mTranslateControlY = mCurveControlPoint != null ? mCurveControlPoint.y : mTranslateDeltaY;
+                // - Table is cached by the spec, plan is only needed by childs, so its worker has until then.
+                mTranslateCurveTable = mSession.getSpec().getTranslateCurveTable(mFrameDuration);
+                mFromViewTranslationX = mFromView.getTranslationX();
+                mFromViewTranslationY = mFromView.getTranslationY();
+                mFromViewScaleX = mFromView.getScaleX();
+                mFromViewScaleY = mFromView.getScaleY();
+                break;
+            case PHASE_REVEAL:
+                RevealatorTrace.beginSection(RevealatorTrace.SECTION_CREATE_ANIMATION);
+                try {
+                    // - A detached view is just shown, without animator.
+                    mRevealAnimator = RevealatorHelper.createCircularReveal(mViewToReveal, mGeometry, true);
+                    if (mRevealAnimator != null) {
+                        mRevealAnimator.setInterpolator(REVEAL_INTERPOLATOR);
+                        mRevealAnimator.setDuration(mRevealDuration);
+                    }
+                } finally {
+                    RevealatorTrace.endSection();
+                }
+                mViewToReveal.setVisibility(View.VISIBLE);
+                RevealatorHelper.startTickedAnimator(mRevealAnimator);
+                break;
+            case PHASE_CHILDS:
+                final float[] childsPivots = getPlan().getChildsPivots();
+                final int childsCount = mChildsViews.length;
+                // - All groups start hidden.
+                final int groupsCount = getPlan().getGroupsStartOffsets().length;
+                if (mGroupsScales == null || mGroupsScales.length < groupsCount) {
+                    mGroupsScales = new float[groupsCount];
+                    mGroupsChanged = new boolean[groupsCount];
+                }
+                for (int groupIndex = 0; groupIndex < groupsCount; groupIndex++) {
+                    mGroupsScales[groupIndex] = 0;
+                }
+                // - Container's childs are already hidden while drawing, and scaled from their group pivot.
+                if (mChildsContainer != null) {
+                    for (int childIndex = 0; childsPivots != null && childIndex < childsCount; childIndex++) {
+                        mChildsContainer.setChildPivot(mChildsIndexes[childIndex], childsPivots[childIndex * 2], childsPivots[childIndex * 2 + 1]);
+                    }
+                    break;
+                }
+                // - Show childs, scaled down to nothing.
+                if (mChildsScaleX == null || mChildsScaleX.length < childsCount) {
+                    mChildsScaleX = new float[childsCount];
+                    mChildsScaleY = new float[childsCount];
+                }
+                for (int childIndex = 0; childIndex < childsCount; childIndex++) {
+                    final View childView = mChildsViews[childIndex];
+                    mChildsScaleX[childIndex] = childView.getScaleX();
+                    mChildsScaleY[childIndex] = childView.getScaleY();
+                    childView.setScaleX(0);
+                    childView.setScaleY(0);
+                    childView.setVisibility(View.VISIBLE);
+                }
+                // - Scaling from the group pivot is scaling from child's pivot, plus a translation toward the group pivot.
+                mChildsGroupPivots = childsPivots != null;
+                if (mChildsGroupPivots) {
+                    if (mChildsTranslationX == null || mChildsTranslationX.length < childsCount) {
+                        mChildsTranslationX = new float[childsCount];
+                        mChildsTranslationY = new float[childsCount];
+                        mChildsPivotDeltaX = new float[childsCount];
+                        mChildsPivotDeltaY = new float[childsCount];
+                    }
+                    for (int childIndex = 0; childIndex < childsCount; childIndex++) {
+                        final View childView = mChildsViews[childIndex];
+                        mChildsTranslationX[childIndex] = childView.getTranslationX();
+                        mChildsTranslationY[childIndex] = childView.getTranslationY();
+                        mChildsPivotDeltaX[childIndex] = childsPivots[childIndex * 2] - childView.getPivotX();
+                        mChildsPivotDeltaY[childIndex] = childsPivots[childIndex * 2 + 1] - childView.getPivotY();
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Applies current phase at a given time.
+     *
+     * @param phaseTime Time since phase start.
+     */
+    private void applyPhase(final long phaseTime) {
+        RevealatorTrace.beginSection(getPhaseSectionName());
+        try {
+            applyPhaseUntraced(phaseTime);
+        } finally {
+            RevealatorTrace.endSection();
+        }
+    }
+
+    /**
+     * Get current phase trace section name.
+     *
+     * @return Section name.
+     */
+    private String getPhaseSectionName() {
+        switch (mPhase) {
+            case PHASE_TRANSLATE:
+                return RevealatorTrace.SECTION_TRANSLATE;
+            case PHASE_REVEAL:
+                return RevealatorTrace.SECTION_REVEAL;
+            default:
+                return RevealatorTrace.SECTION_CHILDS;
+        }
+    }
+
+    /**
+     * Applies current phase at a given time, without trace section.
+     *
+     * @param phaseTime Time since phase start.
+     */
+    private void applyPhaseUntraced(final long phaseTime) {
+        switch (mPhase) {
+            case PHASE_TRANSLATE:
+                final float time = mTranslateDuration > 0 ? phaseTime / (float) mTranslateDuration : 1;
+                mTranslateCurveTable.evaluate(time, 0, 0, mTranslateControlX, mTranslateControlY, mTranslateDeltaX, mTranslateDeltaY, mTranslatePosition);
+                mFromView.setTranslationX(mFromViewTranslationX + mTranslatePosition.x);
+                mFromView.setTranslationY(mFromViewTranslationY + mTranslatePosition.y);
+                if (time >= mHideFromViewAtInterpolatedTime) {
+                    final float hideTime = mHideFromViewAtInterpolatedTime < 1 ? (time - mHideFromViewAtInterpolatedTime) / (1 - mHideFromViewAtInterpolatedTime) : 1;
+                    final float scale = 1 - HIDE_INTERPOLATOR.getInterpolation(hideTime);
+                    mFromView.setScaleX(mFromViewScaleX * scale);
+                    mFromView.setScaleY(mFromViewScaleY * scale);
+                }
+                break;
+            case PHASE_REVEAL:
+                RevealatorHelper.setTickedAnimatorPlayTime(mRevealAnimator, phaseTime);
+                break;
+            case PHASE_CHILDS:
+                // - Interpolate once per group, then update only the childs of the groups which have changed.
+                final long[] groupsStartOffsets = getPlan().getGroupsStartOffsets();
+                boolean groupsChanged = false;
+                for (int groupIndex = 0; groupIndex < groupsStartOffsets.length; groupIndex++) {
+                    final long groupTime = phaseTime - groupsStartOffsets[groupIndex];
+                    final float groupScale = groupTime <= 0 ? 0 : CHILD_INTERPOLATOR.getInterpolation(Math.min(1, groupTime / (float) mChildAnimationDuration));
+                    mGroupsChanged[groupIndex] = groupScale != mGroupsScales[groupIndex];
+                    mGroupsScales[groupIndex] = groupScale;
+                    groupsChanged |= mGroupsChanged[groupIndex];
+                }
+                if (!groupsChanged) {
+                    break;
+                }
+                final int[] childsGroups = getPlan().getChildsGroups();
+                for (int childIndex = 0; childIndex < mChildsViews.length; childIndex++) {
+                    final int groupIndex = childsGroups[childIndex];
+                    if (!mGroupsChanged[groupIndex]) {
+                        continue;
+                    }
+                    final float childScale = mGroupsScales[groupIndex];
+                    if (mChildsContainer != null) {
+                        mChildsContainer.setChildScale(mChildsIndexes[childIndex], childScale);
+                    } else {
+                        final View childView = mChildsViews[childIndex];
+                        childView.setScaleX(mChildsScaleX[childIndex] * childScale);
+                        childView.setScaleY(mChildsScaleY[childIndex] * childScale);
+                        if (mChildsGroupPivots) {
+                            childView.setTranslationX(mChildsTranslationX[childIndex] + (1 - childScale) * mChildsPivotDeltaX[childIndex]);
+                            childView.setTranslationY(mChildsTranslationY[childIndex] + (1 - childScale) * mChildsPivotDeltaY[childIndex]);
+                        }
+                    }
+                }
+                if (mChildsContainer != null) {
+                    mChildsContainer.invalidate();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Ends current phase.
+     */
+    private void endPhase() {
+        switch (mPhase) {
+            case PHASE_TRANSLATE:
+                // - Hide "from view" and put it back in place.
+                mFromView.setVisibility(View.INVISIBLE);
+                mFromView.setTranslationX(mFromViewTranslationX);
+                mFromView.setTranslationY(mFromViewTranslationY);
+                mFromView.setScaleX(mFromViewScaleX);
+                mFromView.setScaleY(mFromViewScaleY);
+                break;
+            case PHASE_REVEAL:
+                RevealatorHelper.endTickedAnimator(mRevealAnimator);
+                mRevealAnimator = null;
+                break;
+            case PHASE_CHILDS:
+                if (mChildsContainer != null) {
+                    mChildsContainer.endChildsReveal();
+                    break;
+                }
+                for (int childIndex = 0; childIndex < mChildsViews.length; childIndex++) {
+                    final View childView = mChildsViews[childIndex];
+                    childView.setScaleX(mChildsScaleX[childIndex]);
+                    childView.setScaleY(mChildsScaleY[childIndex]);
+                    if (mChildsGroupPivots) {
+                        childView.setTranslationX(mChildsTranslationX[childIndex]);
+                        childView.setTranslationY(mChildsTranslationY[childIndex]);
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Shows childs without animation.
+     */
+    private void showChildsViews() {
+        if (mChildsContainer != null) {
+            mChildsContainer.endChildsReveal();
+            return;
+        }
+        for (final View childView : mChildsViews) {
+            childView.setVisibility(View.VISIBLE);
+        }
+    }
+
+}
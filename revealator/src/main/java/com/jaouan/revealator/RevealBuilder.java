@@ -4,12 +4,8 @@ import android.graphics.PointF;
 import android.support.annotation.NonNull;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.Animation;
 
-import com.jaouan.revealator.animations.AnimationListenerAdapter;
-
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Revealator "reveal" builder.
@@ -20,23 +16,13 @@ public class RevealBuilder {
 
     private View mFromView;
 
-    private int mTranslateDuration = 250;
-
-    private int mRevealDuration = 250;
-
-    private boolean mChildsAnimation = false;
-
-    private long mChildAnimationDuration = 500;
-
-    private int mDelayBetweenChildAnimation = 50;
-
-    private boolean mCurvedTranslation = false;
+    private Runnable mEndAction;
 
-    private PointF mCurveControlPoint;
+    private RevealListener mListener;
 
-    private Runnable mEndAction;
+    private RevealSpec.Builder mSpecBuilder = new RevealSpec.Builder();
 
-    private float mHideFromViewAtInterpolatedTime = .8f;
+    private RevealSpec mSpec;
 
     /**
      * Reveal builder's contructor.
@@ -54,7 +40,8 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withRevealDuration(final int revealDuration) {
-        this.mRevealDuration = revealDuration;
+        this.mSpecBuilder.withRevealDuration(revealDuration);
+        this.mSpec = null;
         return this;
     }
 
@@ -65,7 +52,8 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withTranslateDuration(final int translateDuration) {
-        this.mTranslateDuration = translateDuration;
+        this.mSpecBuilder.withTranslateDuration(translateDuration);
+        this.mSpec = null;
         return this;
     }
 
@@ -76,7 +64,8 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withHideFromViewAtTranslateInterpolatedTime(final float hideFromViewAtInterpolatedTime) {
-        this.mHideFromViewAtInterpolatedTime = hideFromViewAtInterpolatedTime;
+        this.mSpecBuilder.withHideFromViewAtTranslateInterpolatedTime(hideFromViewAtInterpolatedTime);
+        this.mSpec = null;
         return this;
     }
 
@@ -86,7 +75,10 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withChildsAnimation() {
-        this.mChildsAnimation = mViewToReveal instanceof ViewGroup;
+        if (mViewToReveal instanceof ViewGroup) {
+            this.mSpecBuilder.withChildsAnimation();
+            this.mSpec = null;
+        }
         return this;
     }
 
@@ -96,7 +88,8 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withCurvedTranslation() {
-        this.mCurvedTranslation = true;
+        this.mSpecBuilder.withCurvedTranslation();
+        this.mSpec = null;
         return this;
     }
 
@@ -108,8 +101,9 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withCurvedTranslation(final PointF curveControlPoint) {
-        this.mCurveControlPoint = curveControlPoint;
-        return this.withCurvedTranslation();
+        this.mSpecBuilder.withCurvedTranslation(curveControlPoint);
+        this.mSpec = null;
+        return this;
     }
 
     /**
@@ -119,7 +113,8 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withChildAnimationDuration(final int childAnimationDuration) {
-        this.mChildAnimationDuration = childAnimationDuration;
+        this.mSpecBuilder.withChildAnimationDuration(childAnimationDuration);
+        this.mSpec = null;
         return this;
     }
 
@@ -130,7 +125,44 @@ public class RevealBuilder {
      * @return Builder.
      */
     public RevealBuilder withDelayBetweenChildAnimation(final int delayBetweenChildAnimation) {
-        this.mDelayBetweenChildAnimation = delayBetweenChildAnimation;
+        this.mSpecBuilder.withDelayBetweenChildAnimation(delayBetweenChildAnimation);
+        this.mSpec = null;
+        return this;
+    }
+
+    /**
+     * Defines how childs are grouped, to animate less views or less distinct timings.
+     *
+     * @param childsGrouping Childs grouping, one of RevealSpec.CHILDS_GROUPING_* constants.
+     * @return Builder.
+     */
+    public RevealBuilder withChildsGrouping(@RevealSpec.ChildsGrouping final int childsGrouping) {
+        this.mSpecBuilder.withChildsGrouping(childsGrouping);
+        this.mSpec = null;
+        return this;
+    }
+
+    /**
+     * Defines an executor precomputing the reveal plan (childs groups and stagger schedule) and the translate curve table off the UI thread, while waiting for the first frame.
+     *
+     * @param precomputeExecutor Executor, like a background single thread executor. Null to compute plan on the UI thread.
+     * @return Builder.
+     */
+    public RevealBuilder withPrecomputeExecutor(final Executor precomputeExecutor) {
+        this.mSpecBuilder.withPrecomputeExecutor(precomputeExecutor);
+        this.mSpec = null;
+        return this;
+    }
+
+    /**
+     * Defines the whole configuration from a spec, which is then reused as long as configuration is not changed.
+     *
+     * @param revealSpec Reveal spec.
+     * @return Builder.
+     */
+    public RevealBuilder withSpec(@NonNull final RevealSpec revealSpec) {
+        this.mSpecBuilder = new RevealSpec.Builder(revealSpec);
+        this.mSpec = revealSpec;
         return this;
     }
 
@@ -147,6 +179,8 @@ public class RevealBuilder {
 
     /**
      * Defines end action callback.
+     * <p/>
+     * If the view is requested to go back before this request has started, this request is dropped and its end action is not called.
      *
      * @param endAction End action callback.
      * @return Builder.
@@ -157,57 +191,26 @@ public class RevealBuilder {
     }
 
     /**
-     * Let's animate !
+     * Defines progress listener, called from the animation frames.
+     *
+     * @param listener Progress listener.
+     * @return Builder.
      */
-    public void start() {
-        // - Make view to reveal invisible.
-        mViewToReveal.setVisibility(View.INVISIBLE);
-
-        // - Find and hide all childs if necessary.
-        final List<View> ordoredChildsViews = new ArrayList<>();
-        if (this.mChildsAnimation) {
-            RevealatorHelper.findAllVisibleChilds((ViewGroup) this.mViewToReveal, ordoredChildsViews);
-            for (final View childView : ordoredChildsViews) {
-                childView.setVisibility(View.INVISIBLE);
-            }
-        }
-
-        // - If from view does not exist.
-        if (this.mFromView == null) {
-            // - Reveal view and childs.
-            revealViewAndChilds(ordoredChildsViews);
-        } else {
-            // - Prepare to reveal view when translation end.
-            final Animation.AnimationListener animationListener = new AnimationListenerAdapter() {
-                @Override
-                public void onAnimationEnd(Animation animation) {
-                    revealViewAndChilds(ordoredChildsViews);
-                }
-            };
-            // - Translate and hide the "from view" and delay reveal animation.
-            RevealatorHelper.translateAndHideView(this.mFromView, this.mViewToReveal, this.mTranslateDuration, this.mCurvedTranslation, this.mCurveControlPoint, this.mHideFromViewAtInterpolatedTime, animationListener);
-        }
+    public RevealBuilder withListener(@NonNull final RevealListener listener) {
+        this.mListener = listener;
+        return this;
     }
 
     /**
-     * Reveal view and childs.
+     * Let's animate !
      *
-     * @param ordoredChildsViews Childs views.
+     * @return Reveal session, to unreveal the view later without measuring it again.
      */
-    private void revealViewAndChilds(final List<View> ordoredChildsViews) {
-        RevealatorHelper.revealView(mViewToReveal, mRevealDuration, new Runnable() {
-                    @Override
-                    public void run() {
-                        // - Show childs view if necessary.
-                        RevealatorHelper.orderedShowViews(ordoredChildsViews, mChildAnimationDuration, mDelayBetweenChildAnimation);
-
-                        // - Fire end action if necessary.
-                        if (mEndAction != null) {
-                            mEndAction.run();
-                        }
-                    }
-                }
-        );
+    public RevealSession start() {
+        if (this.mSpec == null) {
+            this.mSpec = this.mSpecBuilder.build();
+        }
+        return this.mSpec.reveal(this.mViewToReveal, this.mFromView, this.mEndAction, this.mListener);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.jaouan.revealator;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.View;
+import android.widget.FrameLayout;
+
+/**
+ * Frame layout whose direct childs are animated by Revealator when revealed with childs animation.
+ * <p/>
+ * Childs are hidden and scaled while drawing, from a scales array, so neither their visibility nor their properties are changed.
+ */
+public class RevealContainer extends FrameLayout {
+
+    /**
+     * Childs scales, by child index. Ignored when childs are not revealing.
+     */
+    private float[] mChildsScales = new float[0];
+
+    /**
+     * Childs scale pivots, relative to each child, by child index. NaN for child's own pivot.
+     */
+    private float[] mChildsPivots = new float[0];
+
+    private boolean mChildsRevealing;
+
+    /**
+     * Index of the next child to draw, as childs are drawn in order most of the time.
+     */
+    private int mNextDrawnChildIndex;
+
+    /**
+     * Reveal container's constructor.
+     *
+     * @param context Context.
+     */
+    public RevealContainer(final Context context) {
+        super(context);
+    }
+
+    /**
+     * Reveal container's constructor.
+     *
+     * @param context Context.
+     * @param attrs   Attributes.
+     */
+    public RevealContainer(final Context context, final AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    /**
+     * Reveal container's constructor.
+     *
+     * @param context      Context.
+     * @param attrs        Attributes.
+     * @param defStyleAttr Default style attribute.
+     */
+    public RevealContainer(final Context context, final AttributeSet attrs, final int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    /**
+     * Hides all childs until they are scaled, or until childs reveal ends.
+     */
+    void beginChildsReveal() {
+        final int childCount = getChildCount();
+        if (mChildsScales.length < childCount) {
+            mChildsScales = new float[childCount];
+            mChildsPivots = new float[childCount * 2];
+        }
+        for (int childIndex = 0; childIndex < mChildsScales.length; childIndex++) {
+            mChildsScales[childIndex] = 0;
+            mChildsPivots[childIndex * 2] = Float.NaN;
+            mChildsPivots[childIndex * 2 + 1] = Float.NaN;
+        }
+        mChildsRevealing = true;
+        invalidate();
+    }
+
+    /**
+     * Defines the scale of a child. Container must be invalidated then.
+     *
+     * @param childIndex Child index.
+     * @param scale      Scale. 0 hides the child.
+     */
+    void setChildScale(final int childIndex, final float scale) {
+        if (childIndex >= 0 && childIndex < mChildsScales.length) {
+            mChildsScales[childIndex] = scale;
+        }
+    }
+
+    /**
+     * Defines the scale pivot of a child, like the center of its row.
+     *
+     * @param childIndex Child index.
+     * @param pivotX     Pivot X, relative to the child.
+     * @param pivotY     Pivot Y, relative to the child.
+     */
+    void setChildPivot(final int childIndex, final float pivotX, final float pivotY) {
+        if (childIndex >= 0 && childIndex < mChildsScales.length) {
+            mChildsPivots[childIndex * 2] = pivotX;
+            mChildsPivots[childIndex * 2 + 1] = pivotY;
+        }
+    }
+
+    /**
+     * Draws all childs normally again.
+     */
+    void endChildsReveal() {
+        mChildsRevealing = false;
+        invalidate();
+    }
+
+    @Override
+    protected void dispatchDraw(final Canvas canvas) {
+        mNextDrawnChildIndex = 0;
+        super.dispatchDraw(canvas);
+    }
+
+    @Override
+    protected boolean drawChild(final Canvas canvas, final View child, final long drawingTime) {
+        if (!mChildsRevealing) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+
+        // - Find child index, without searching when childs are drawn in order.
+        final int childIndex = mNextDrawnChildIndex < getChildCount() && getChildAt(mNextDrawnChildIndex) == child ? mNextDrawnChildIndex : indexOfChild(child);
+        mNextDrawnChildIndex = childIndex + 1;
+        if (childIndex < 0 || childIndex >= mChildsScales.length) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+
+        final float scale = mChildsScales[childIndex];
+        if (scale <= 0) {
+            return false;
+        }
+        if (scale >= 1) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        final float pivotX = Float.isNaN(mChildsPivots[childIndex * 2]) ? child.getPivotX() : mChildsPivots[childIndex * 2];
+        final float pivotY = Float.isNaN(mChildsPivots[childIndex * 2 + 1]) ? child.getPivotY() : mChildsPivots[childIndex * 2 + 1];
+        final int saveCount = canvas.save();
+        try {
+            canvas.scale(scale, scale, child.getLeft() + child.getTranslationX() + pivotX, child.getTop() + child.getTranslationY() + pivotY);
+            return super.drawChild(canvas, child, drawingTime);
+        } finally {
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.jaouan.revealator;
+
+import android.view.View;
+
+/**
+ * Captured geometry of a revealed view and of the view translated to it.
+ * <p/>
+ * Geometry is stored in the revealed view's tags and shared by every reveal and unreveal of this view.
+ * It is captured again only when the revealed view has been laid out, or when one of the views has moved.
+ */
+final class RevealGeometry implements View.OnLayoutChangeListener {
+
+    private final View mRevealedView;
+
+    private View mTranslatedView;
+
+    private boolean mValid;
+
+    private int mLayoutGeneration;
+
+    private float mTranslateDeltaX;
+
+    private float mTranslateDeltaY;
+
+    private int mCenterX;
+
+    private int mCenterY;
+
+    private float mRadius;
+
+    private int mRevealedViewLeft;
+
+    private int mRevealedViewTop;
+
+    /**
+     * On screen locations of the views when the translate delta was captured.
+     */
+    private final int[] mRevealedViewLocation = new int[2];
+
+    private final int[] mTranslatedViewLocation = new int[2];
+
+    /**
+     * Current on screen location, reused to check captured ones.
+     */
+    private final int[] mLocation = new int[2];
+
+    /**
+     * Reveal geometry's constructor.
+     *
+     * @param revealedView Revealed view.
+     */
+    private RevealGeometry(final View revealedView) {
+        mRevealedView = revealedView;
+    }
+
+    /**
+     * Get the geometry of a revealed view.
+     *
+     * @param revealedView   Revealed view.
+     * @param translatedView View translated to or from the revealed view. Can be null.
+     * @return Geometry.
+     */
+    static RevealGeometry obtain(final View revealedView, final View translatedView) {
+        RevealGeometry geometry = (RevealGeometry) revealedView.getTag(R.id.revealator_geometry);
+        if (geometry == null) {
+            geometry = new RevealGeometry(revealedView);
+            revealedView.setTag(R.id.revealator_geometry, geometry);
+            revealedView.addOnLayoutChangeListener(geometry);
+        }
+        if (geometry.mTranslatedView != translatedView) {
+            geometry.mTranslatedView = translatedView;
+            geometry.mValid = false;
+        }
+        return geometry;
+    }
+
+    @Override
+    public void onLayoutChange(final View view, final int left, final int top, final int right, final int bottom, final int oldLeft, final int oldTop, final int oldRight, final int oldBottom) {
+        mLayoutGeneration++;
+        mValid = false;
+    }
+
+    /**
+     * Get layout generation. It changes each time the revealed view is laid out, so its childs may have changed.
+     *
+     * @return Layout generation.
+     */
+    int getLayoutGeneration() {
+        return mLayoutGeneration;
+    }
+
+    /**
+     * Captures geometry again if views have moved since last capture, on screen too, like when an ancestor has scrolled.
+     */
+    void ensureValid() {
+        if (mValid && mRevealedView.getLeft() == mRevealedViewLeft && mRevealedView.getTop() == mRevealedViewTop
+                && (mTranslatedView == null || isAtLocation(mRevealedView, mRevealedViewLocation) && isAtLocation(mTranslatedView, mTranslatedViewLocation))) {
+            return;
+        }
+
+        // - Determine circle location and size.
+        mCenterX = (mRevealedView.getLeft() + mRevealedView.getRight()) / 2;
+        mCenterY = (mRevealedView.getTop() + mRevealedView.getBottom()) / 2;
+        int viewDiameterX = Math.max(mCenterX, mRevealedView.getWidth() - mCenterX);
+        int viewDiameterY = Math.max(mCenterY, mRevealedView.getHeight() - mCenterY);
+        mRadius = (float) Math.hypot(viewDiameterX, viewDiameterY);
+        mRevealedViewLeft = mRevealedView.getLeft();
+        mRevealedViewTop = mRevealedView.getTop();
+
+        // - Determine translate delta.
+        if (mTranslatedView != null) {
+            mTranslatedView.getLocationOnScreen(mTranslatedViewLocation);
+            mRevealedView.getLocationOnScreen(mRevealedViewLocation);
+            mTranslateDeltaX = mRevealedViewLocation[0] - mTranslatedViewLocation[0] + mRevealedView.getMeasuredWidth() / 2 - mTranslatedView.getMeasuredWidth() / 2;
+            mTranslateDeltaY = mRevealedViewLocation[1] - mTranslatedViewLocation[1] + mRevealedView.getMeasuredHeight() / 2 - mTranslatedView.getMeasuredHeight() / 2;
+        }
+
+        mValid = true;
+    }
+
+    /**
+     * Checks if a view is still at a captured on screen location.
+     *
+     * @param view     View.
+     * @param location Captured location.
+     * @return True if view has not moved on screen.
+     */
+    private boolean isAtLocation(final View view, final int[] location) {
+        view.getLocationOnScreen(mLocation);
+        return mLocation[0] == location[0] && mLocation[1] == location[1];
+    }
+
+    /**
+     * Get X delta between translated view's center and revealed view's center.
+     *
+     * @return X delta.
+     */
+    float getTranslateDeltaX() {
+        return mTranslateDeltaX;
+    }
+
+    /**
+     * Get Y delta between translated view's center and revealed view's center.
+     *
+     * @return Y delta.
+     */
+    float getTranslateDeltaY() {
+        return mTranslateDeltaY;
+    }
+
+    /**
+     * Get circle's center X.
+     *
+     * @return Center X.
+     */
+    int getCenterX() {
+        return mCenterX;
+    }
+
+    /**
+     * Get circle's center Y.
+     *
+     * @return Center Y.
+     */
+    int getCenterY() {
+        return mCenterY;
+    }
+
+    /**
+     * Get circle's radius when view is fully revealed.
+     *
+     * @return Radius.
+     */
+    float getRadius() {
+        return mRadius;
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.jaouan.revealator;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * Reveal state of a RecyclerView item, kept by its view holder across binds.
+ * <p/>
+ * Reveal session, geometry, plan and animations are reused as long as the item reveals the same view, and animations are canceled when the item is recycled
+ * by a {@link RecyclerListener}.
+ */
+public final class RevealHolder {
+
+    private RevealSession mSession;
+
+    /**
+     * Reveal holder's constructor.
+     */
+    private RevealHolder() {
+    }
+
+    /**
+     * Get the reveal holder of a view holder.
+     *
+     * @param viewHolder View holder.
+     * @return Reveal holder.
+     */
+    public static RevealHolder obtain(@NonNull final RecyclerView.ViewHolder viewHolder) {
+        RevealHolder revealHolder = (RevealHolder) viewHolder.itemView.getTag(R.id.revealator_holder);
+        if (revealHolder == null) {
+            revealHolder = new RevealHolder();
+            viewHolder.itemView.setTag(R.id.revealator_holder, revealHolder);
+        }
+        return revealHolder;
+    }
+
+    /**
+     * Reveals a view of the item.
+     *
+     * @param revealSpec   Reveal spec.
+     * @param viewToReveal View to reveal.
+     * @param fromView     View to translate to the view to reveal. Can be null.
+     */
+    public void reveal(@NonNull final RevealSpec revealSpec, @NonNull final View viewToReveal, final View fromView) {
+        reveal(revealSpec, viewToReveal, fromView, null);
+    }
+
+    /**
+     * Reveals a view of the item.
+     *
+     * @param revealSpec   Reveal spec.
+     * @param viewToReveal View to reveal.
+     * @param fromView     View to translate to the view to reveal. Can be null.
+     * @param endAction    End action callback. Can be null.
+     */
+    public void reveal(@NonNull final RevealSpec revealSpec, @NonNull final View viewToReveal, final View fromView, final Runnable endAction) {
+        if (mSession != null && mSession.getSpec() == revealSpec && mSession.getViewToReveal() == viewToReveal && mSession.getFromView() == fromView) {
+            mSession.reveal(endAction);
+        } else {
+            mSession = revealSpec.reveal(viewToReveal, fromView, endAction);
+        }
+    }
+
+    /**
+     * Unreveals the last revealed view of the item, symmetrically.
+     */
+    public void unreveal() {
+        unreveal(null);
+    }
+
+    /**
+     * Unreveals the last revealed view of the item, symmetrically.
+     *
+     * @param endAction End action callback. Can be null.
+     */
+    public void unreveal(final Runnable endAction) {
+        if (mSession != null) {
+            mSession.getSpec().getSymmetricUnrevealSpec().unreveal(mSession.getViewToReveal(), mSession.getFromView(), endAction);
+        }
+    }
+
+    /**
+     * Cancels running and pending animations of the item. Views jump to their final state, and end actions are not called.
+     * <p/>
+     * A running reveal jumps to its revealed state, so an item rebound to another position may show its revealed view. Use {@link #reset()} to settle on the
+     * unrevealed state instead.
+     */
+    public void cancel() {
+        if (mSession != null) {
+            RevealState.obtain(mSession.getViewToReveal()).cancel();
+        }
+    }
+
+    /**
+     * Cancels running and pending animations of the item, then hides the revealed view and shows the "from view" back, like after an unreveal.
+     * End actions are not called.
+     */
+    public void reset() {
+        if (mSession != null) {
+            cancel();
+            mSession.getViewToReveal().setVisibility(View.INVISIBLE);
+            if (mSession.getFromView() != null) {
+                mSession.getFromView().setVisibility(View.VISIBLE);
+            }
+        }
+    }
+
+    /**
+     * Recycler listener canceling items animations when items are recycled.
+     */
+    public static class RecyclerListener implements RecyclerView.RecyclerListener {
+
+        private final boolean mResetRecycled;
+
+        private final RecyclerView.RecyclerListener mDelegate;
+
+        /**
+         * Recycler listener's constructor. Recycled items are canceled, see {@link RevealHolder#cancel()}.
+         */
+        public RecyclerListener() {
+            this(false, null);
+        }
+
+        /**
+         * Recycler listener's constructor. Recycled items are canceled, see {@link RevealHolder#cancel()}.
+         *
+         * @param delegate Recycler listener also called. Can be null.
+         */
+        public RecyclerListener(final RecyclerView.RecyclerListener delegate) {
+            this(false, delegate);
+        }
+
+        /**
+         * Recycler listener's constructor.
+         *
+         * @param resetRecycled True to settle recycled items on their unrevealed state, see {@link RevealHolder#reset()}.
+         * @param delegate      Recycler listener also called. Can be null.
+         */
+        public RecyclerListener(final boolean resetRecycled, final RecyclerView.RecyclerListener delegate) {
+            mResetRecycled = resetRecycled;
+            mDelegate = delegate;
+        }
+
+        @Override
+        public void onViewRecycled(final RecyclerView.ViewHolder holder) {
+            final RevealHolder revealHolder = (RevealHolder) holder.itemView.getTag(R.id.revealator_holder);
+            if (revealHolder != null) {
+                if (mResetRecycled) {
+                    revealHolder.reset();
+                } else {
+                    revealHolder.cancel();
+                }
+            }
+            if (mDelegate != null) {
+                mDelegate.onViewRecycled(holder);
+            }
+        }
+
+    }
+
+}
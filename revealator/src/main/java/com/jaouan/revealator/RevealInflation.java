@@ -0,0 +1,301 @@
+package com.jaouan.revealator;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.util.AttributeSet;
+import android.util.Xml;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Lazy inflation of the layout of a view to reveal, stored in its tags until the layout is attached.
+ * <p/>
+ * Layout is inflated by a background worker while the "from view" translates, and attached on the UI thread just before the circular reveal.
+ * If layout can't be inflated off the UI thread, it is inflated on the UI thread.
+ * <p/>
+ * The worker has its own inflater without factories, as factories like the AppCompat delegate's one are not thread safe :
+ * AppCompat widgets are not substituted in layouts inflated in background, and must be declared explicitly.
+ * The worker never touches the container either : it reads the root attributes, and layout params are generated from them on attach.
+ */
+final class RevealInflation implements Runnable {
+
+    private static final String TAG_MERGE = "merge";
+
+    private static final int STATE_QUEUED = 0;
+    private static final int STATE_INFLATING = 1;
+    private static final int STATE_INFLATED = 2;
+
+    /**
+     * Layout is inflated on the UI thread, as it was needed before the worker started.
+     */
+    private static final int STATE_CLAIMED = 3;
+
+    private static ExecutorService sDefaultExecutor;
+
+    private final ViewGroup mContainer;
+
+    private final int mLayoutResId;
+
+    private LayoutInflater mWorkerLayoutInflater;
+
+    private Resources mWorkerResources;
+
+    private View mInflatedView;
+
+    /**
+     * Parser at the start tag of the layout's root, open until attached.
+     */
+    private XmlResourceParser mRootParser;
+
+    private volatile int mState = STATE_QUEUED;
+
+    private boolean mStarted;
+
+    /**
+     * Reveal inflation's constructor.
+     *
+     * @param container   Container, view to reveal.
+     * @param layoutResId Layout to inflate in the container.
+     */
+    private RevealInflation(final ViewGroup container, final int layoutResId) {
+        mContainer = container;
+        mLayoutResId = layoutResId;
+    }
+
+    /**
+     * Defines the layout to inflate in a container, once revealed.
+     *
+     * @param container   Container, view to reveal.
+     * @param layoutResId Layout to inflate in the container. Can't have a {@code <merge>} root.
+     */
+    static void prepare(final ViewGroup container, final int layoutResId) {
+        // - Layout is attached as a single view.
+        final XmlResourceParser rootParser = openRootParser(container.getResources(), layoutResId);
+        if (rootParser != null) {
+            final boolean merge = TAG_MERGE.equals(rootParser.getName());
+            rootParser.close();
+            if (merge) {
+                throw new IllegalArgumentException("Layout to inflate on reveal can't have a <merge> root");
+            }
+        }
+        container.setTag(R.id.revealator_inflation, new RevealInflation(container, layoutResId));
+    }
+
+    /**
+     * Get the inflation of a view to reveal, if its layout is not attached yet.
+     *
+     * @param viewToReveal View to reveal.
+     * @return Reveal inflation. Can be null.
+     */
+    static RevealInflation peek(final View viewToReveal) {
+        return (RevealInflation) viewToReveal.getTag(R.id.revealator_inflation);
+    }
+
+    /**
+     * Starts inflating in background, once.
+     *
+     * @param executor Executor. Null for the default background thread.
+     */
+    void start(final Executor executor) {
+        if (mStarted) {
+            return;
+        }
+        mStarted = true;
+        mWorkerLayoutInflater = new BasicInflater(mContainer.getContext());
+        mWorkerResources = mContainer.getResources();
+        (executor != null ? executor : getDefaultExecutor()).execute(this);
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (mState != STATE_QUEUED) {
+                return;
+            }
+            mState = STATE_INFLATING;
+        }
+        RevealatorTrace.beginSection(RevealatorTrace.SECTION_INFLATE);
+        View inflatedView = null;
+        XmlResourceParser rootParser = null;
+        try {
+            rootParser = openRootParser(mWorkerResources, mLayoutResId);
+            // - No root, so the container is not touched off the UI thread.
+            inflatedView = mWorkerLayoutInflater.inflate(mLayoutResId, null, false);
+        } catch (final RuntimeException exception) {
+            // - Some views need the UI thread, like the ones creating handlers. Layout will be inflated on attach.
+            inflatedView = null;
+        } finally {
+            if (inflatedView == null && rootParser != null) {
+                rootParser.close();
+                rootParser = null;
+            }
+            synchronized (this) {
+                mInflatedView = inflatedView;
+                mRootParser = rootParser;
+                mState = STATE_INFLATED;
+                notifyAll();
+            }
+            RevealatorTrace.endSection();
+        }
+    }
+
+    /**
+     * Get if inflation is over, successful or not.
+     *
+     * @return True if layout can be attached without waiting.
+     */
+    boolean isInflated() {
+        return mState == STATE_INFLATED;
+    }
+
+    /**
+     * Attaches the inflated layout to the container. Must be called on the UI thread.
+     * <p/>
+     * Waits for the worker if it is inflating, and inflates the layout now if the worker has not started or has failed.
+     */
+    void attach() {
+        final View inflatedView = awaitInflatedView();
+        mContainer.setTag(R.id.revealator_inflation, null);
+        if (inflatedView == null) {
+            RevealatorTrace.beginSection(RevealatorTrace.SECTION_INFLATE);
+            try {
+                mContainer.addView(LayoutInflater.from(mContainer.getContext()).inflate(mLayoutResId, mContainer, false));
+            } finally {
+                RevealatorTrace.endSection();
+            }
+            return;
+        }
+        final ViewGroup.LayoutParams layoutParams;
+        try {
+            layoutParams = mRootParser != null ? mContainer.generateLayoutParams(Xml.asAttributeSet(mRootParser)) : null;
+        } finally {
+            if (mRootParser != null) {
+                mRootParser.close();
+                mRootParser = null;
+            }
+        }
+        if (layoutParams != null) {
+            mContainer.addView(inflatedView, layoutParams);
+        } else {
+            mContainer.addView(inflatedView);
+        }
+    }
+
+    /**
+     * Get the view inflated by the worker, waiting for it if it is inflating, so the layout is never inflated twice.
+     *
+     * @return Inflated view. Null if layout must be inflated on the UI thread.
+     */
+    private synchronized View awaitInflatedView() {
+        if (mState == STATE_QUEUED) {
+            mState = STATE_CLAIMED;
+            return null;
+        }
+        boolean interrupted = false;
+        while (mState == STATE_INFLATING) {
+            try {
+                wait();
+            } catch (final InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return mInflatedView;
+    }
+
+    /**
+     * Opens a layout, at the start tag of its root.
+     *
+     * @param resources   Resources.
+     * @param layoutResId Layout.
+     * @return Parser, to close. Null if layout can't be read.
+     */
+    private static XmlResourceParser openRootParser(final Resources resources, final int layoutResId) {
+        final XmlResourceParser parser = resources.getLayout(layoutResId);
+        try {
+            int type;
+            do {
+                type = parser.next();
+            } while (type != XmlPullParser.START_TAG && type != XmlPullParser.END_DOCUMENT);
+            if (type == XmlPullParser.START_TAG) {
+                return parser;
+            }
+        } catch (XmlPullParserException | IOException exception) {
+            // - Layout errors are thrown by the inflater.
+        }
+        parser.close();
+        return null;
+    }
+
+    /**
+     * Get the default executor, a low priority background thread.
+     *
+     * @return Default executor.
+     */
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (sDefaultExecutor == null) {
+            sDefaultExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "Revealator inflater");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+        return sDefaultExecutor;
+    }
+
+    /**
+     * Inflater without factories, like the default one of a context, safe to use off the UI thread.
+     */
+    private static class BasicInflater extends LayoutInflater {
+
+        private static final String[] CLASS_PREFIXES = {"android.widget.", "android.webkit.", "android.app."};
+
+        /**
+         * Basic inflater's constructor.
+         *
+         * @param context Context.
+         */
+        BasicInflater(final Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(final Context newContext) {
+            return new BasicInflater(newContext);
+        }
+
+        @Override
+        protected View onCreateView(final String name, final AttributeSet attrs) throws ClassNotFoundException {
+            for (final String classPrefix : CLASS_PREFIXES) {
+                try {
+                    final View view = createView(name, classPrefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (final ClassNotFoundException exception) {
+                    // - Try next prefix.
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+
+    }
+
+}
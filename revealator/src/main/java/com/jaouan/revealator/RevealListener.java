@@ -0,0 +1,50 @@
+package com.jaouan.revealator;
+
+/**
+ * Reveal and unreveal progress listener, called on the UI thread from the shared animation frame.
+ * <p/>
+ * Useful to bind the revealed content while the view is translating, rather than before starting or after the end.
+ */
+public interface RevealListener {
+
+    /**
+     * "From view" translation of a reveal, or "to view" translation of an unreveal.
+     */
+    int PHASE_TRANSLATE = 0;
+
+    /**
+     * Circular reveal.
+     */
+    int PHASE_REVEAL = 1;
+
+    /**
+     * Childs animation, after the circular reveal.
+     */
+    int PHASE_CHILDS = 2;
+
+    /**
+     * Circular unreveal.
+     */
+    int PHASE_UNREVEAL = 3;
+
+    /**
+     * Called when a phase starts.
+     *
+     * @param phase Phase, one of PHASE_* constants.
+     */
+    void onPhaseStart(int phase);
+
+    /**
+     * Called on each frame of a phase. Last call of a phase is always with a fraction of 1, even if frames have been skipped.
+     *
+     * @param phase    Phase, one of PHASE_* constants.
+     * @param fraction Elapsed fraction of the phase, between 0 and 1.
+     */
+    void onProgress(int phase, float fraction);
+
+    /**
+     * Called when translation ends, before the next phase starts.
+     */
+    void onTranslateEnd();
+
+}
@@ -0,0 +1,20 @@
+package com.jaouan.revealator;
+
+/**
+ * Reveal listener with empty methods, to override only the needed ones.
+ */
+public abstract class RevealListenerAdapter implements RevealListener {
+
+    @Override
+    public void onPhaseStart(final int phase) {
+    }
+
+    @Override
+    public void onProgress(final int phase, final float fraction) {
+    }
+
+    @Override
+    public void onTranslateEnd() {
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.jaouan.revealator;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reveal plan : data derived from the spec and from the views snapshot, like childs stagger schedule and groups pivots.
+ * <p/>
+ * A plan is pure computation, so it can be computed by a background worker with a {@link Task}.
+ */
+final class RevealPlan {
+
+    private final int[] mChildsGroups;
+
+    private final long[] mGroupsStartOffsets;
+
+    private final long mChildsDuration;
+
+    private final float[] mChildsPivots;
+
+    /**
+     * Reveal plan's constructor. Computes the plan.
+     *
+     * @param spec          Reveal spec.
+     * @param childsCount   Childs count.
+     * @param childsBounds  Captured childs bounds, to group childs by row. Can be null.
+     * @param frameDuration Frame duration.
+     */
+    private RevealPlan(final RevealSpec spec, final int childsCount, final float[] childsBounds, final float frameDuration) {
+        // - Group childs, each child being its own group by default.
+        mChildsGroups = new int[childsCount];
+        final int groupsCount;
+        if (childsBounds != null) {
+            mChildsPivots = new float[childsCount * 2];
+            groupsCount = groupByRow(childsBounds, childsCount, mChildsGroups, mChildsPivots);
+        } else {
+            mChildsPivots = null;
+            for (int childIndex = 0; childIndex < childsCount; childIndex++) {
+                mChildsGroups[childIndex] = childIndex;
+            }
+            groupsCount = childsCount;
+        }
+
+        // - Determine groups stagger schedule, each group starting on a vsync boundary.
+        mGroupsStartOffsets = new long[groupsCount];
+        for (int groupIndex = 0; groupIndex < groupsCount; groupIndex++) {
+            mGroupsStartOffsets[groupIndex] = RevealatorFramePacing.snapDelay(groupIndex * (long) spec.getDelayBetweenChildAnimation(), frameDuration);
+        }
+        mChildsDuration = groupsCount > 0 ? RevealatorFramePacing.snapDelay((groupsCount - 1) * (long) spec.getDelayBetweenChildAnimation(), frameDuration) + spec.getChildAnimationDuration() : 0;
+    }
+
+    /**
+     * Groups childs by laid out row, from top to bottom. A child whose vertical center is below the current row starts a new one.
+     *
+     * @param childsBounds Left, top, right and bottom of each child.
+     * @param childsCount  Childs count.
+     * @param childsGroups Row of each child, filled.
+     * @param childsPivots Row center of each child, relative to the child, filled.
+     * @return Rows count.
+     */
+    static int groupByRow(final float[] childsBounds, final int childsCount, final int[] childsGroups, final float[] childsPivots) {
+        // - Sort childs by top. Childs are mostly found from top to bottom already, so insertion sort is nearly linear.
+        final int[] order = new int[childsCount];
+        for (int childIndex = 0; childIndex < childsCount; childIndex++) {
+            int insertIndex = childIndex;
+            while (insertIndex > 0 && childsBounds[order[insertIndex - 1] * 4 + 1] > childsBounds[childIndex * 4 + 1]) {
+                order[insertIndex] = order[insertIndex - 1];
+                insertIndex--;
+            }
+            order[insertIndex] = childIndex;
+        }
+
+        int rowsCount = 0;
+        int rowStart = 0;
+        float rowLeft = 0;
+        float rowTop = 0;
+        float rowRight = 0;
+        float rowBottom = 0;
+        for (int orderIndex = 0; orderIndex < childsCount; orderIndex++) {
+            final int childIndex = order[orderIndex];
+            final float left = childsBounds[childIndex * 4];
+            final float top = childsBounds[childIndex * 4 + 1];
+            final float right = childsBounds[childIndex * 4 + 2];
+            final float bottom = childsBounds[childIndex * 4 + 3];
+            if (rowsCount == 0 || (top + bottom) / 2 >= rowBottom) {
+                if (rowsCount > 0) {
+                    applyRowPivots(childsBounds, order, rowStart, orderIndex, (rowLeft + rowRight) / 2, (rowTop + rowBottom) / 2, childsPivots);
+                }
+                rowsCount++;
+                rowStart = orderIndex;
+                rowLeft = left;
+                rowTop = top;
+                rowRight = right;
+                rowBottom = bottom;
+            } else {
+                rowLeft = Math.min(rowLeft, left);
+                rowTop = Math.min(rowTop, top);
+                rowRight = Math.max(rowRight, right);
+                rowBottom = Math.max(rowBottom, bottom);
+            }
+            childsGroups[childIndex] = rowsCount - 1;
+        }
+        if (rowsCount > 0) {
+            applyRowPivots(childsBounds, order, rowStart, childsCount, (rowLeft + rowRight) / 2, (rowTop + rowBottom) / 2, childsPivots);
+        }
+        return rowsCount;
+    }
+
+    /**
+     * Defines row center as pivot of the childs of a row.
+     *
+     * @param childsBounds Left, top, right and bottom of each child.
+     * @param order        Childs indexes, sorted by top.
+     * @param rowStart     Row start, in order.
+     * @param rowEnd       Row end, exclusive, in order.
+     * @param rowCenterX   Row center X.
+     * @param rowCenterY   Row center Y.
+     * @param childsPivots Row center of each child, relative to the child, filled.
+     */
+    private static void applyRowPivots(final float[] childsBounds, final int[] order, final int rowStart, final int rowEnd, final float rowCenterX, final float rowCenterY, final float[] childsPivots) {
+        for (int orderIndex = rowStart; orderIndex < rowEnd; orderIndex++) {
+            final int childIndex = order[orderIndex];
+            childsPivots[childIndex * 2] = rowCenterX - childsBounds[childIndex * 4];
+            childsPivots[childIndex * 2 + 1] = rowCenterY - childsBounds[childIndex * 4 + 1];
+        }
+    }
+
+    /**
+     * Get the group of each child, animated as one unit.
+     *
+     * @return Group index of each child, not to be modified.
+     */
+    int[] getChildsGroups() {
+        return mChildsGroups;
+    }
+
+    /**
+     * Get groups start offsets, since childs animation start.
+     *
+     * @return Start offsets, not to be modified. Its length is the groups count.
+     */
+    long[] getGroupsStartOffsets() {
+        return mGroupsStartOffsets;
+    }
+
+    /**
+     * Get childs group pivots, relative to each child.
+     *
+     * @return Pivot X and Y of each child, not to be modified. Null if childs are not grouped by row.
+     */
+    float[] getChildsPivots() {
+        return mChildsPivots;
+    }
+
+    /**
+     * Get childs animation duration, until the last child's end.
+     *
+     * @return Childs animation duration.
+     */
+    long getChildsDuration() {
+        return mChildsDuration;
+    }
+
+    /**
+     * Reveal plan computation, from a snapshot taken on the UI thread.
+     * <p/>
+     * Task can be run by a background worker, which also builds the spec's translate curve table.
+     * If plan is needed before the worker has finished, it is computed synchronously.
+     */
+    static final class Task implements Runnable {
+
+        private final RevealSpec mSpec;
+
+        private final int mChildsCount;
+
+        private final float[] mChildsBounds;
+
+        private final float mFrameDuration;
+
+        private final AtomicReference<RevealPlan> mPlan = new AtomicReference<>();
+
+        /**
+         * Task's constructor.
+         *
+         * @param spec          Reveal spec.
+         * @param childsCount   Childs count.
+         * @param childsBounds  Captured childs bounds, to group childs by row, not modified. Can be null.
+         * @param frameDuration Frame duration.
+         */
+        Task(final RevealSpec spec, final int childsCount, final float[] childsBounds, final float frameDuration) {
+            mSpec = spec;
+            mChildsCount = childsCount;
+            mChildsBounds = childsBounds;
+            mFrameDuration = frameDuration;
+        }
+
+        /**
+         * Get frame duration the plan is paced for.
+         *
+         * @return Frame duration.
+         */
+        float getFrameDuration() {
+            return mFrameDuration;
+        }
+
+        @Override
+        public void run() {
+            // - Warm the spec's translate table too, so the first translate frame only reads it. Translate builds it itself if the worker is late.
+            mSpec.getTranslateCurveTable(mFrameDuration);
+            if (mPlan.get() == null) {
+                RevealatorTrace.beginSection(RevealatorTrace.SECTION_PLAN);
+                try {
+                    mPlan.compareAndSet(null, new RevealPlan(mSpec, mChildsCount, mChildsBounds, mFrameDuration));
+                } finally {
+                    RevealatorTrace.endSection();
+                }
+            }
+        }
+
+        /**
+         * Get the plan, computing it synchronously if it is not ready yet.
+         *
+         * @return Plan.
+         */
+        RevealPlan getPlan() {
+            if (mPlan.get() == null) {
+                RevealatorTrace.beginSection(RevealatorTrace.SECTION_PLAN);
+                try {
+                    // - Don't wait for a running worker, compute it here. Both plans are equivalent, the first one is kept.
+                    mPlan.compareAndSet(null, new RevealPlan(mSpec, mChildsCount, mChildsBounds, mFrameDuration));
+                } finally {
+                    RevealatorTrace.endSection();
+                }
+            }
+            return mPlan.get();
+        }
+
+    }
+
+}
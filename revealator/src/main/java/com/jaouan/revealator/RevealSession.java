@@ -0,0 +1,313 @@
+package com.jaouan.revealator;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Revealator "reveal" session, returned by {@link RevealBuilder#start()}.
+ * <p/>
+ * Keeps the spec, the captured geometry and the childs of the revealed view, so the symmetric unreveal, or a new reveal, does not measure views nor rebuild tables again.
+ * Geometry and childs are captured again only if the revealed view has been laid out since.
+ */
+public class RevealSession {
+
+    private final RevealSpec mSpec;
+
+    private final View mViewToReveal;
+
+    private final View mFromView;
+
+    private final boolean mChildsAnimation;
+
+    private final RevealContainer mChildsContainer;
+
+    private final RevealGeometry mGeometry;
+
+    private static final View[] NO_CHILDS_VIEWS = new View[0];
+
+    private final List<View> mChildsViews = new ArrayList<>();
+
+    private View[] mChildsViewsArray = NO_CHILDS_VIEWS;
+
+    private float[] mChildsBounds;
+
+    private int mChildsLayoutGeneration;
+
+    private boolean mChildsFound;
+
+    private RevealPlan.Task mPlanTask;
+
+    private RevealInflation mInflation;
+
+    private RevealAnimation mRevealAnimation;
+
+    private final RevealState.Starter mStarter = new RevealState.Starter() {
+        @Override
+        public void start(final Runnable endAction, final RevealListener listener) {
+            startNow(endAction, listener);
+        }
+    };
+
+    /**
+     * Reveal session's constructor.
+     *
+     * @param spec         Reveal spec.
+     * @param viewToReveal View to reveal.
+     * @param fromView     View to translate to the view to reveal. Can be null.
+     */
+    RevealSession(final RevealSpec spec, final View viewToReveal, final View fromView) {
+        mSpec = spec;
+        mViewToReveal = viewToReveal;
+        mFromView = fromView;
+        mChildsAnimation = spec.isChildsAnimation() && viewToReveal instanceof ViewGroup;
+        mChildsContainer = mChildsAnimation && viewToReveal instanceof RevealContainer ? (RevealContainer) viewToReveal : null;
+        mGeometry = RevealGeometry.obtain(viewToReveal, fromView);
+    }
+
+    /**
+     * Reveals the view again, with the same configuration.
+     */
+    public void reveal() {
+        reveal(null);
+    }
+
+    /**
+     * Reveals the view again, with the same configuration.
+     *
+     * @param endAction End action callback. Can be null.
+     */
+    public void reveal(final Runnable endAction) {
+        start(endAction, null);
+    }
+
+    /**
+     * Reveals the view again, with the same configuration.
+     *
+     * @param endAction End action callback. Can be null.
+     * @param listener  Progress listener. Can be null.
+     */
+    public void reveal(final Runnable endAction, final RevealListener listener) {
+        start(endAction, listener);
+    }
+
+    /**
+     * Prepares the symmetric unreveal, back to the "from view", reusing the captured geometry.
+     *
+     * @return Revealator "unreveal" builder, to start.
+     */
+    public UnrevealBuilder unreveal() {
+        return new UnrevealBuilder(mViewToReveal)
+                .withSpec(mSpec.getSymmetricUnrevealSpec())
+                .to(mFromView);
+    }
+
+    /**
+     * Starts the reveal.
+     *
+     * @param endAction End action callback. Can be null.
+     * @param listener  Progress listener. Can be null.
+     */
+    void start(final Runnable endAction, final RevealListener listener) {
+        // - Coalesce with the animation running on the view, if any.
+        RevealState.obtain(mViewToReveal).request(RevealState.REQUEST_REVEAL, mStarter, endAction, listener);
+    }
+
+    /**
+     * Starts the reveal now.
+     *
+     * @param endAction End action callback. Can be null.
+     * @param listener  Progress listener. Can be null.
+     */
+    private void startNow(final Runnable endAction, final RevealListener listener) {
+        RevealatorTrace.beginSection(RevealatorTrace.SECTION_REVEAL_START);
+        try {
+            // - Make view to reveal invisible.
+            mViewToReveal.setVisibility(View.INVISIBLE);
+
+            RevealatorFramePacing.update(mViewToReveal);
+
+            // - Layout to inflate is inflated while the "from view" translates, and its childs are found once attached.
+            mInflation = RevealInflation.peek(mViewToReveal);
+            if (mInflation != null) {
+                mInflation.start(mSpec.getPrecomputeExecutor());
+                mChildsViewsArray = NO_CHILDS_VIEWS;
+                mChildsFound = false;
+                mPlanTask = null;
+            } else {
+                prepareChilds();
+            }
+            preparePlan();
+
+            // - Translate and hide the "from view" if necessary, reveal view then show childs, all ticked by the shared ticker.
+            // - Nothing runs on the view now, so the previous animation can be reused.
+            RevealatorTrace.beginSection(RevealatorTrace.SECTION_CREATE_ANIMATION);
+            try {
+                if (mRevealAnimation == null) {
+                    mRevealAnimation = new RevealAnimation(this);
+                }
+                mRevealAnimation.prepare(mPlanTask, endAction, listener);
+            } finally {
+                RevealatorTrace.endSection();
+            }
+            RevealState.obtain(mViewToReveal).onStarted(RevealState.REQUEST_REVEAL, mRevealAnimation);
+            RevealatorTicker.getInstance().add(mRevealAnimation);
+        } finally {
+            RevealatorTrace.endSection();
+        }
+    }
+
+    /**
+     * Finds and hides all childs if necessary.
+     */
+    private void prepareChilds() {
+        if (!mChildsAnimation) {
+            return;
+        }
+        RevealatorTrace.beginSection(RevealatorTrace.SECTION_FIND_CHILDS);
+        try {
+            if (!mChildsFound || mChildsLayoutGeneration != mGeometry.getLayoutGeneration()) {
+                mChildsViews.clear();
+                if (mChildsContainer != null) {
+                    RevealatorHelper.findVisibleDirectChilds(mChildsContainer, mChildsViews);
+                } else if (mSpec.getChildsGrouping() == RevealSpec.CHILDS_GROUPING_PARENT) {
+                    RevealatorHelper.findVisibleChildsParents((ViewGroup) mViewToReveal, mChildsViews);
+                } else {
+                    RevealatorHelper.findAllVisibleChilds((ViewGroup) mViewToReveal, mChildsViews);
+                }
+                // - Rows are computed by the plan from bounds, a new array keeps running plans consistent.
+                mChildsBounds = mSpec.getChildsGrouping() == RevealSpec.CHILDS_GROUPING_ROW ? RevealatorHelper.captureChildsBounds(mViewToReveal, mChildsViews) : null;
+                mChildsViewsArray = mChildsViews.toArray(new View[mChildsViews.size()]);
+                mChildsLayoutGeneration = mGeometry.getLayoutGeneration();
+                mChildsFound = true;
+                mPlanTask = null;
+            }
+            // - A reveal container hides its childs while drawing, other childs are made invisible.
+            if (mChildsContainer != null) {
+                if (mChildsViewsArray.length > 0) {
+                    mChildsContainer.beginChildsReveal();
+                }
+            } else {
+                for (final View childView : mChildsViewsArray) {
+                    childView.setVisibility(View.INVISIBLE);
+                }
+            }
+        } finally {
+            RevealatorTrace.endSection();
+        }
+    }
+
+    /**
+     * Computes the plan from the snapshot, in background if possible. Plan is kept as long as childs and display are the same.
+     */
+    private void preparePlan() {
+        final float frameDuration = RevealatorFramePacing.getFrameDuration();
+        if (mPlanTask == null || mPlanTask.getFrameDuration() != frameDuration) {
+            mPlanTask = new RevealPlan.Task(mSpec, mChildsViewsArray.length, mChildsAnimation ? mChildsBounds : null, frameDuration);
+            if (mSpec.getPrecomputeExecutor() != null) {
+                mSpec.getPrecomputeExecutor().execute(mPlanTask);
+            }
+        }
+    }
+
+    /**
+     * Get if the layout of the view to reveal is still to attach.
+     *
+     * @return True if inflating.
+     */
+    boolean isInflating() {
+        return mInflation != null;
+    }
+
+    /**
+     * Attaches the inflated layout of the view to reveal, if any.
+     *
+     * @param force True to attach it now, waiting for the worker if it is inflating, or inflating it on the UI thread if the worker has not started.
+     * @return True if layout is attached.
+     */
+    boolean attachInflatedLayout(final boolean force) {
+        if (mInflation == null) {
+            return true;
+        }
+        if (!force && !mInflation.isInflated()) {
+            return false;
+        }
+        mInflation.attach();
+        mInflation = null;
+        return true;
+    }
+
+    /**
+     * Finds and hides the childs of the attached layout, then plans their animation.
+     */
+    void prepareInflatedChilds() {
+        prepareChilds();
+        preparePlan();
+    }
+
+    /**
+     * Get reveal plan task.
+     *
+     * @return Plan task.
+     */
+    RevealPlan.Task getPlanTask() {
+        return mPlanTask;
+    }
+
+    /**
+     * Get reveal spec.
+     *
+     * @return Reveal spec.
+     */
+    RevealSpec getSpec() {
+        return mSpec;
+    }
+
+    /**
+     * Get view to reveal.
+     *
+     * @return View to reveal.
+     */
+    View getViewToReveal() {
+        return mViewToReveal;
+    }
+
+    /**
+     * Get view to translate to the view to reveal.
+     *
+     * @return From view. Can be null.
+     */
+    View getFromView() {
+        return mFromView;
+    }
+
+    /**
+     * Get captured geometry.
+     *
+     * @return Geometry.
+     */
+    RevealGeometry getGeometry() {
+        return mGeometry;
+    }
+
+    /**
+     * Get the container drawing the childs, if the view to reveal is one.
+     *
+     * @return Childs container. Can be null.
+     */
+    RevealContainer getChildsContainer() {
+        return mChildsContainer;
+    }
+
+    /**
+     * Get childs views to animate after reveal. A new array is returned each time childs are found again.
+     *
+     * @return Childs views, not to be modified.
+     */
+    View[] getChildsViewsArray() {
+        return mChildsViewsArray;
+    }
+
+}
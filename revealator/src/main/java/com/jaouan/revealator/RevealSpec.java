@@ -0,0 +1,485 @@
+package com.jaouan.revealator;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.PointF;
+import android.support.annotation.IntDef;
+import android.support.annotation.NonNull;
+import android.support.annotation.StyleRes;
+import android.util.AttributeSet;
+import android.view.View;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.Executor;
+
+/**
+ * Immutable and thread-safe "reveal" configuration, built once and applied to any view.
+ * <p/>
+ * Derived data, like curve tables, is computed once per display refresh rate and shared by every reveal of the spec.
+ */
+public final class RevealSpec {
+
+    /**
+     * Each child is animated on its own.
+     */
+    public static final int CHILDS_GROUPING_NONE = 0;
+
+    /**
+     * Childs of a same laid out row are animated as one unit, scaled from the row center.
+     * <p/>
+     * Row scale is interpolated once per frame, and rows not animating cost nothing. Childs of a {@link RevealContainer} are scaled while drawing, but other
+     * childs are views of their own : each child of an animating row still has its scale and translation set on each frame.
+     * Use {@link #CHILDS_GROUPING_PARENT} or a {@link RevealContainer} to animate less views.
+     */
+    public static final int CHILDS_GROUPING_ROW = 1;
+
+    /**
+     * Childs are animated through their nearest view group ancestor, as one unit. Ignored by a {@link RevealContainer}, whose childs are already direct ones.
+     */
+    public static final int CHILDS_GROUPING_PARENT = 2;
+
+    /**
+     * Childs grouping modes.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({CHILDS_GROUPING_NONE, CHILDS_GROUPING_ROW, CHILDS_GROUPING_PARENT})
+    public @interface ChildsGrouping {
+    }
+
+    private final int mTranslateDuration;
+
+    private final int mRevealDuration;
+
+    private final boolean mChildsAnimation;
+
+    private final long mChildAnimationDuration;
+
+    private final int mDelayBetweenChildAnimation;
+
+    private final int mChildsGrouping;
+
+    private final boolean mCurvedTranslation;
+
+    private final PointF mCurveControlPoint;
+
+    private final float mHideFromViewAtInterpolatedTime;
+
+    private final Executor mPrecomputeExecutor;
+
+    private volatile CurveTable mTranslateCurveTable;
+
+    private volatile UnrevealSpec mSymmetricUnrevealSpec;
+
+    /**
+     * Reveal spec's constructor.
+     *
+     * @param builder Builder.
+     */
+    private RevealSpec(final Builder builder) {
+        mTranslateDuration = builder.mTranslateDuration;
+        mRevealDuration = builder.mRevealDuration;
+        mChildsAnimation = builder.mChildsAnimation;
+        mChildAnimationDuration = builder.mChildAnimationDuration;
+        mDelayBetweenChildAnimation = builder.mDelayBetweenChildAnimation;
+        mChildsGrouping = builder.mChildsGrouping;
+        mCurvedTranslation = builder.mCurvedTranslation;
+        mCurveControlPoint = builder.mCurveControlPoint != null ? new PointF(builder.mCurveControlPoint.x, builder.mCurveControlPoint.y) : null;
+        mHideFromViewAtInterpolatedTime = builder.mHideFromViewAtInterpolatedTime;
+        mPrecomputeExecutor = builder.mPrecomputeExecutor;
+    }
+
+    /**
+     * Reveals a view.
+     *
+     * @param viewToReveal View to reveal.
+     * @return Reveal session.
+     */
+    public RevealSession reveal(@NonNull final View viewToReveal) {
+        return reveal(viewToReveal, null, null);
+    }
+
+    /**
+     * Reveals a view, translating another view to it first.
+     *
+     * @param viewToReveal View to reveal.
+     * @param fromView     View to translate to the view to reveal. Can be null.
+     * @return Reveal session.
+     */
+    public RevealSession reveal(@NonNull final View viewToReveal, final View fromView) {
+        return reveal(viewToReveal, fromView, null);
+    }
+
+    /**
+     * Reveals a view, translating another view to it first.
+     *
+     * @param viewToReveal View to reveal.
+     * @param fromView     View to translate to the view to reveal. Can be null.
+     * @param endAction    End action callback. Can be null.
+     * @return Reveal session.
+     */
+    public RevealSession reveal(@NonNull final View viewToReveal, final View fromView, final Runnable endAction) {
+        return reveal(viewToReveal, fromView, endAction, null);
+    }
+
+    /**
+     * Reveals a view, translating another view to it first.
+     *
+     * @param viewToReveal View to reveal.
+     * @param fromView     View to translate to the view to reveal. Can be null.
+     * @param endAction    End action callback. Can be null.
+     * @param listener     Progress listener. Can be null.
+     * @return Reveal session.
+     */
+    public RevealSession reveal(@NonNull final View viewToReveal, final View fromView, final Runnable endAction, final RevealListener listener) {
+        final RevealSession revealSession = new RevealSession(this, viewToReveal, fromView);
+        revealSession.start(endAction, listener);
+        return revealSession;
+    }
+
+    /**
+     * Get translate duration.
+     *
+     * @return Translate duration.
+     */
+    public int getTranslateDuration() {
+        return mTranslateDuration;
+    }
+
+    /**
+     * Get reveal duration.
+     *
+     * @return Reveal duration.
+     */
+    public int getRevealDuration() {
+        return mRevealDuration;
+    }
+
+    /**
+     * Get if childs are animated after reveal.
+     *
+     * @return True if childs are animated. Ignored by views which are not view groups.
+     */
+    public boolean isChildsAnimation() {
+        return mChildsAnimation;
+    }
+
+    /**
+     * Get child animation duration.
+     *
+     * @return Child animation duration.
+     */
+    public long getChildAnimationDuration() {
+        return mChildAnimationDuration;
+    }
+
+    /**
+     * Get delay between child animation.
+     *
+     * @return Delay between child animation.
+     */
+    public int getDelayBetweenChildAnimation() {
+        return mDelayBetweenChildAnimation;
+    }
+
+    /**
+     * Get childs grouping mode.
+     *
+     * @return Childs grouping, one of CHILDS_GROUPING_* constants.
+     */
+    @ChildsGrouping
+    public int getChildsGrouping() {
+        return mChildsGrouping;
+    }
+
+    /**
+     * Get if translation is curved.
+     *
+     * @return True if translation is curved.
+     */
+    public boolean isCurvedTranslation() {
+        return mCurvedTranslation;
+    }
+
+    /**
+     * Get when from view starts to hide.
+     *
+     * @return Start hiding from view interpolated time.
+     */
+    public float getHideFromViewAtInterpolatedTime() {
+        return mHideFromViewAtInterpolatedTime;
+    }
+
+    /**
+     * Get the executor precomputing reveal plans.
+     *
+     * @return Executor. Can be null.
+     */
+    public Executor getPrecomputeExecutor() {
+        return mPrecomputeExecutor;
+    }
+
+    /**
+     * Get relative curved control point.
+     *
+     * @return Control point, not to be modified. Can be null.
+     */
+    PointF getCurveControlPoint() {
+        return mCurveControlPoint;
+    }
+
+    /**
+     * Get translate curve table, built on first call and when frame duration changes, from any thread.
+     *
+     * @param frameDuration Frame duration.
+     * @return Curve table.
+     */
+    CurveTable getTranslateCurveTable(final float frameDuration) {
+        CurveTable translateCurveTable = mTranslateCurveTable;
+        if (translateCurveTable == null || translateCurveTable.getFrameDuration() != frameDuration) {
+            // - Table only depends on the spec and on the display, so concurrent builds are equivalent.
+            translateCurveTable = RevealAnimation.createTranslateCurveTable(mCurvedTranslation, mTranslateDuration, frameDuration);
+            mTranslateCurveTable = translateCurveTable;
+        }
+        return translateCurveTable;
+    }
+
+    /**
+     * Get the spec of the symmetric unreveal, built once.
+     *
+     * @return Unreveal spec.
+     */
+    UnrevealSpec getSymmetricUnrevealSpec() {
+        UnrevealSpec symmetricUnrevealSpec = mSymmetricUnrevealSpec;
+        if (symmetricUnrevealSpec == null) {
+            final UnrevealSpec.Builder unrevealSpecBuilder = new UnrevealSpec.Builder()
+                    .withTranslateDuration(mTranslateDuration)
+                    .withUnrevealDuration(mRevealDuration);
+            if (mCurvedTranslation) {
+                unrevealSpecBuilder.withCurvedTranslation(mCurveControlPoint);
+            }
+            // - Spec is immutable, so concurrent builds are equivalent.
+            symmetricUnrevealSpec = unrevealSpecBuilder.build();
+            mSymmetricUnrevealSpec = symmetricUnrevealSpec;
+        }
+        return symmetricUnrevealSpec;
+    }
+
+    /**
+     * Reveal spec builder.
+     */
+    public static final class Builder {
+
+        private int mTranslateDuration = 250;
+
+        private int mRevealDuration = 250;
+
+        private boolean mChildsAnimation = false;
+
+        private long mChildAnimationDuration = 500;
+
+        private int mDelayBetweenChildAnimation = 50;
+
+        private int mChildsGrouping = CHILDS_GROUPING_NONE;
+
+        private boolean mCurvedTranslation = false;
+
+        private PointF mCurveControlPoint;
+
+        private float mHideFromViewAtInterpolatedTime = .8f;
+
+        private Executor mPrecomputeExecutor;
+
+        /**
+         * Builder's constructor, with default values.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Builder's constructor, with values of an existing spec.
+         *
+         * @param revealSpec Reveal spec.
+         */
+        public Builder(@NonNull final RevealSpec revealSpec) {
+            mTranslateDuration = revealSpec.mTranslateDuration;
+            mRevealDuration = revealSpec.mRevealDuration;
+            mChildsAnimation = revealSpec.mChildsAnimation;
+            mChildAnimationDuration = revealSpec.mChildAnimationDuration;
+            mDelayBetweenChildAnimation = revealSpec.mDelayBetweenChildAnimation;
+            mChildsGrouping = revealSpec.mChildsGrouping;
+            mCurvedTranslation = revealSpec.mCurvedTranslation;
+            mCurveControlPoint = revealSpec.mCurveControlPoint;
+            mHideFromViewAtInterpolatedTime = revealSpec.mHideFromViewAtInterpolatedTime;
+            mPrecomputeExecutor = revealSpec.mPrecomputeExecutor;
+        }
+
+        /**
+         * Defines values from XML attributes. Attributes are the {@code revealator_*} ones of {@code RevealSpec} styleable.
+         *
+         * @param context      Context.
+         * @param attributeSet Attributes.
+         * @return Builder.
+         */
+        public Builder withAttributes(@NonNull final Context context, final AttributeSet attributeSet) {
+            final TypedArray typedArray = context.obtainStyledAttributes(attributeSet, R.styleable.RevealSpec, 0, 0);
+            readTypedArray(typedArray);
+            typedArray.recycle();
+            return this;
+        }
+
+        /**
+         * Defines values from a style. Attributes are the {@code revealator_*} ones of {@code RevealSpec} styleable.
+         *
+         * @param context    Context.
+         * @param styleResId Style resource.
+         * @return Builder.
+         */
+        public Builder withStyle(@NonNull final Context context, @StyleRes final int styleResId) {
+            final TypedArray typedArray = context.obtainStyledAttributes(styleResId, R.styleable.RevealSpec);
+            readTypedArray(typedArray);
+            typedArray.recycle();
+            return this;
+        }
+
+        /**
+         * Reads defined values of a typed array.
+         *
+         * @param typedArray Typed array.
+         */
+        private void readTypedArray(final TypedArray typedArray) {
+            mTranslateDuration = typedArray.getInt(R.styleable.RevealSpec_revealator_translateDuration, mTranslateDuration);
+            mRevealDuration = typedArray.getInt(R.styleable.RevealSpec_revealator_revealDuration, mRevealDuration);
+            mChildsAnimation = typedArray.getBoolean(R.styleable.RevealSpec_revealator_childsAnimation, mChildsAnimation);
+            mChildAnimationDuration = typedArray.getInt(R.styleable.RevealSpec_revealator_childAnimationDuration, (int) mChildAnimationDuration);
+            mDelayBetweenChildAnimation = typedArray.getInt(R.styleable.RevealSpec_revealator_delayBetweenChildAnimation, mDelayBetweenChildAnimation);
+            mChildsGrouping = typedArray.getInt(R.styleable.RevealSpec_revealator_childsGrouping, mChildsGrouping);
+            mCurvedTranslation = typedArray.getBoolean(R.styleable.RevealSpec_revealator_curvedTranslation, mCurvedTranslation);
+            if (typedArray.hasValue(R.styleable.RevealSpec_revealator_curveControlPointX) && typedArray.hasValue(R.styleable.RevealSpec_revealator_curveControlPointY)) {
+                mCurveControlPoint = new PointF(typedArray.getDimension(R.styleable.RevealSpec_revealator_curveControlPointX, 0), typedArray.getDimension(R.styleable.RevealSpec_revealator_curveControlPointY, 0));
+                mCurvedTranslation = true;
+            }
+            mHideFromViewAtInterpolatedTime = typedArray.getFloat(R.styleable.RevealSpec_revealator_hideFromViewAtTranslateInterpolatedTime, mHideFromViewAtInterpolatedTime);
+        }
+
+        /**
+         * Defines reveal duration.
+         *
+         * @param revealDuration Reveal duration.
+         * @return Builder.
+         */
+        public Builder withRevealDuration(final int revealDuration) {
+            mRevealDuration = revealDuration;
+            return this;
+        }
+
+        /**
+         * Defines translate duration.
+         *
+         * @param translateDuration Translate duration.
+         * @return Builder.
+         */
+        public Builder withTranslateDuration(final int translateDuration) {
+            mTranslateDuration = translateDuration;
+            return this;
+        }
+
+        /**
+         * Defines when from view starts to hide.
+         *
+         * @param hideFromViewAtInterpolatedTime End from view at interpolated time of translation. Must be between 0 and 1. (default : 0.8f)
+         * @return Builder.
+         */
+        public Builder withHideFromViewAtTranslateInterpolatedTime(final float hideFromViewAtInterpolatedTime) {
+            mHideFromViewAtInterpolatedTime = hideFromViewAtInterpolatedTime;
+            return this;
+        }
+
+        /**
+         * Defines that childs should be animated after reveal. Ignored by views which are not view groups.
+         *
+         * @return Builder.
+         */
+        public Builder withChildsAnimation() {
+            mChildsAnimation = true;
+            return this;
+        }
+
+        /**
+         * Defines that translation must be curved.
+         *
+         * @return Builder.
+         */
+        public Builder withCurvedTranslation() {
+            mCurvedTranslation = true;
+            return this;
+        }
+
+        /**
+         * Defines that translation must be curved.
+         *
+         * @param curveControlPoint Relative curved control point.
+         * @return Builder.
+         */
+        public Builder withCurvedTranslation(final PointF curveControlPoint) {
+            mCurveControlPoint = curveControlPoint;
+            return withCurvedTranslation();
+        }
+
+        /**
+         * Defines by child animation duration.
+         *
+         * @param childAnimationDuration Child animation duration.
+         * @return Builder.
+         */
+        public Builder withChildAnimationDuration(final long childAnimationDuration) {
+            mChildAnimationDuration = childAnimationDuration;
+            return this;
+        }
+
+        /**
+         * Defines delay between child animation.
+         *
+         * @param delayBetweenChildAnimation Delay between child animation.
+         * @return Builder.
+         */
+        public Builder withDelayBetweenChildAnimation(final int delayBetweenChildAnimation) {
+            mDelayBetweenChildAnimation = delayBetweenChildAnimation;
+            return this;
+        }
+
+        /**
+         * Defines how childs are grouped, to animate less views or less distinct timings.
+         *
+         * @param childsGrouping Childs grouping, one of CHILDS_GROUPING_* constants. (default : CHILDS_GROUPING_NONE)
+         * @return Builder.
+         */
+        public Builder withChildsGrouping(@ChildsGrouping final int childsGrouping) {
+            mChildsGrouping = childsGrouping;
+            return this;
+        }
+
+        /**
+         * Defines an executor precomputing reveal plans (childs groups and stagger schedule) and the translate curve table off the UI thread, while waiting for the first frame.
+         * Views are still snapshotted on the UI thread, and a plan not ready when needed is computed synchronously.
+         *
+         * @param precomputeExecutor Executor, like a background single thread executor. Null to compute plans on the UI thread.
+         * @return Builder.
+         */
+        public Builder withPrecomputeExecutor(final Executor precomputeExecutor) {
+            mPrecomputeExecutor = precomputeExecutor;
+            return this;
+        }
+
+        /**
+         * Builds the spec.
+         *
+         * @return Reveal spec.
+         */
+        public RevealSpec build() {
+            return new RevealSpec(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.jaouan.revealator;
+
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reveal state of a view, stored in its tags, coalescing reveal and unreveal requests received while an animation is running.
+ * <p/>
+ * At most one request waits for the running animation : a request toward the state the view is already going to is redundant, so it is dropped,
+ * and its end action is called when the running animation settles. A pending request replaced by a newer one in the same direction is dropped,
+ * and its end action is called when the newer one settles. A pending request canceled by a request toward the running state is dropped, with its end action,
+ * as the view never goes there.
+ */
+final class RevealState {
+
+    static final int REQUEST_NONE = -1;
+    static final int REQUEST_REVEAL = 0;
+    static final int REQUEST_UNREVEAL = 1;
+
+    /**
+     * Starts a requested animation.
+     */
+    interface Starter {
+
+        /**
+         * Starts the animation now, and calls {@link #onStarted(int, RevealatorTicker.Tickable)}.
+         *
+         * @param endAction End action. Can be null.
+         * @param listener  Progress listener. Can be null.
+         */
+        void start(Runnable endAction, RevealListener listener);
+
+    }
+
+    private final View mView;
+
+    private UnrevealAnimation mUnrevealAnimation;
+
+    private RevealatorTicker.Tickable mRunningTickable;
+
+    private int mRunningRequest = REQUEST_NONE;
+
+    private Starter mPendingStarter;
+
+    private Runnable mPendingEndAction;
+
+    private RevealListener mPendingListener;
+
+    private int mPendingRequest = REQUEST_NONE;
+
+    /**
+     * End actions of pending requests replaced by the pending one, called when it settles.
+     */
+    private final List<Runnable> mReplacedEndActions = new ArrayList<>();
+
+    private final List<Runnable> mCoalescedEndActions = new ArrayList<>();
+
+    /**
+     * Reveal state's constructor. States are obtained from views, and created directly by tests only.
+     *
+     * @param view View to reveal or to unreveal.
+     */
+    RevealState(final View view) {
+        mView = view;
+    }
+
+    /**
+     * Get the reveal state of a view.
+     *
+     * @param view View to reveal or to unreveal.
+     * @return Reveal state.
+     */
+    static RevealState obtain(final View view) {
+        RevealState state = (RevealState) view.getTag(R.id.revealator_state);
+        if (state == null) {
+            state = new RevealState(view);
+            view.setTag(R.id.revealator_state, state);
+        }
+        return state;
+    }
+
+    /**
+     * Get the unreveal animation of the view, reused as long as the view is unrevealed the same way.
+     *
+     * @param spec   Unreveal spec.
+     * @param toView View to translate after the unreveal. Can be null.
+     * @return Unreveal animation, to request.
+     */
+    UnrevealAnimation obtainUnrevealAnimation(final UnrevealSpec spec, final View toView) {
+        // - Animation is only started when nothing runs on the view, so the running one is never restarted.
+        if (mUnrevealAnimation == null || !mUnrevealAnimation.isSame(spec, toView)) {
+            mUnrevealAnimation = new UnrevealAnimation(spec, mView, toView);
+        }
+        return mUnrevealAnimation;
+    }
+
+    /**
+     * Requests a reveal or an unreveal. Starts it now if nothing is running, or coalesces it with the running one.
+     *
+     * @param request   REQUEST_REVEAL or REQUEST_UNREVEAL.
+     * @param starter   Starts the animation.
+     * @param endAction Request's end action. Can be null.
+     * @param listener  Request's progress listener. Can be null.
+     */
+    void request(final int request, final Starter starter, final Runnable endAction, final RevealListener listener) {
+        if (mRunningRequest == REQUEST_NONE) {
+            starter.start(endAction, listener);
+            return;
+        }
+
+        if (request == mRunningRequest) {
+            // - View is already going there : pending opposite request is canceled, and this one is redundant.
+            clearPending();
+            if (endAction != null) {
+                mCoalescedEndActions.add(endAction);
+            }
+        } else {
+            // - Wait for the running animation, replacing any older pending request. A replaced request going the same way still gets its end action.
+            if (mPendingRequest == request) {
+                if (mPendingEndAction != null) {
+                    mReplacedEndActions.add(mPendingEndAction);
+                }
+            } else {
+                clearPending();
+            }
+            mPendingRequest = request;
+            mPendingStarter = starter;
+            mPendingEndAction = endAction;
+            mPendingListener = listener;
+        }
+    }
+
+    /**
+     * Called when a requested animation starts.
+     *
+     * @param request  REQUEST_REVEAL or REQUEST_UNREVEAL.
+     * @param tickable Animation.
+     */
+    void onStarted(final int request, final RevealatorTicker.Tickable tickable) {
+        mRunningRequest = request;
+        mRunningTickable = tickable;
+    }
+
+    /**
+     * Called when an animation has ended or has been canceled. Starts the pending request if any.
+     *
+     * @param tickable Animation.
+     */
+    void onSettled(final RevealatorTicker.Tickable tickable) {
+        if (tickable != mRunningTickable) {
+            return;
+        }
+        mRunningTickable = null;
+        mRunningRequest = REQUEST_NONE;
+
+        // - End actions may request again, so pending request and end actions are taken first.
+        final int pendingRequest = mPendingRequest;
+        final Starter pendingStarter = mPendingStarter;
+        final Runnable pendingEndAction = mPendingEndAction;
+        final RevealListener pendingListener = mPendingListener;
+        final Runnable[] replacedEndActions = mReplacedEndActions.toArray(new Runnable[mReplacedEndActions.size()]);
+        clearPending();
+        final Runnable[] coalescedEndActions = mCoalescedEndActions.toArray(new Runnable[mCoalescedEndActions.size()]);
+        mCoalescedEndActions.clear();
+
+        for (final Runnable coalescedEndAction : coalescedEndActions) {
+            coalescedEndAction.run();
+        }
+        if (pendingStarter != null) {
+            request(pendingRequest, pendingStarter, pendingEndAction, pendingListener);
+            // - Replaced end actions follow the request, started, coalesced or pending again.
+            for (final Runnable replacedEndAction : replacedEndActions) {
+                if (mRunningRequest == pendingRequest) {
+                    mCoalescedEndActions.add(replacedEndAction);
+                } else if (mPendingRequest == pendingRequest) {
+                    mReplacedEndActions.add(replacedEndAction);
+                } else {
+                    replacedEndAction.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels the running animation, which jumps to its final state, and drops pending request and end actions.
+     */
+    void cancel() {
+        clearPending();
+        mCoalescedEndActions.clear();
+        if (mRunningTickable != null && !RevealatorTicker.getInstance().cancel(mRunningTickable)) {
+            onSettled(mRunningTickable);
+        }
+    }
+
+    /**
+     * Drops the pending request.
+     */
+    private void clearPending() {
+        mPendingRequest = REQUEST_NONE;
+        mPendingStarter = null;
+        mPendingEndAction = null;
+        mPendingListener = null;
+        mReplacedEndActions.clear();
+    }
+
+}
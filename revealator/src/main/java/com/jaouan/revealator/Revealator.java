@@ -1,7 +1,12 @@
 package com.jaouan.revealator;
 
+import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewStub;
+import android.widget.FrameLayout;
 
 /**
  * Revealator utils.
@@ -18,6 +23,70 @@ public class Revealator {
         return new RevealBuilder(viewToReveal);
     }
 
+    /**
+     * Reveal a container, inflating its layout in background while the "from view" translates.
+     * <p/>
+     * Layout is inflated only if the container is empty, and is attached just before the circular reveal.
+     * Inflater's factories don't apply in background : AppCompat widgets are not substituted, and must be declared explicitly.
+     *
+     * @param container   Container to reveal.
+     * @param layoutResId Layout to inflate in the container. Can't have a {@code <merge>} root.
+     * @return Revealator "reveal" builder.
+     */
+    public static RevealBuilder reveal(@NonNull final ViewGroup container, @LayoutRes final int layoutResId) {
+        if (container.getChildCount() == 0 && RevealInflation.peek(container) == null) {
+            RevealInflation.prepare(container, layoutResId);
+        }
+        return new RevealBuilder(container);
+    }
+
+    /**
+     * Reveal the layout of a view stub, inflating it in background while the "from view" translates.
+     * <p/>
+     * View stub is replaced by a frame layout having the stub's layout params and inflated id, and the layout is inflated in this frame layout.
+     * Stub's layout can't have a {@code <merge>} root.
+     *
+     * @param viewStub View stub to reveal. Must have a parent the first time.
+     * @return Revealator "reveal" builder.
+     */
+    public static RevealBuilder reveal(@NonNull final ViewStub viewStub) {
+        // - View stub has already been replaced.
+        final View inflatedContainer = (View) viewStub.getTag(R.id.revealator_inflation);
+        if (inflatedContainer != null) {
+            return new RevealBuilder(inflatedContainer);
+        }
+
+        final ViewParent viewParent = viewStub.getParent();
+        if (!(viewParent instanceof ViewGroup)) {
+            throw new IllegalStateException("ViewStub must have a non-null ViewGroup viewParent");
+        }
+        final ViewGroup parent = (ViewGroup) viewParent;
+        final FrameLayout container = new FrameLayout(viewStub.getContext());
+        if (viewStub.getInflatedId() != View.NO_ID) {
+            container.setId(viewStub.getInflatedId());
+        }
+        container.setVisibility(View.INVISIBLE);
+        final int index = parent.indexOfChild(viewStub);
+        parent.removeViewInLayout(viewStub);
+        parent.addView(container, index, viewStub.getLayoutParams());
+        viewStub.setTag(R.id.revealator_inflation, container);
+
+        return reveal(container, viewStub.getLayoutResource());
+    }
+
+    /**
+     * Starts many reveals at once.
+     * <p/>
+     * All reveals start on the same frame and are ticked by one shared frame callback.
+     *
+     * @param revealBuilders Configured "reveal" builders.
+     */
+    public static void revealAll(@NonNull final RevealBuilder... revealBuilders) {
+        for (final RevealBuilder revealBuilder : revealBuilders) {
+            revealBuilder.start();
+        }
+    }
+
     /**
      * Reveal a view.
      *
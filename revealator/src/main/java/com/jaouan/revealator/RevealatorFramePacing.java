@@ -0,0 +1,107 @@
+package com.jaouan.revealator;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Display;
+import android.view.View;
+
+/**
+ * Frame pacing of the revealator, from the refresh rate of the display.
+ * <p/>
+ * Curve tables are sampled once per frame, and childs stagger offsets and phase handoffs are snapped to vsync boundaries, at 60Hz as well as at 90Hz or 120Hz.
+ */
+final class RevealatorFramePacing {
+
+    /**
+     * Duration of a 60Hz frame, in milliseconds.
+     */
+    static final float DEFAULT_FRAME_DURATION = 1000 / 60f;
+
+    /**
+     * Refresh rates out of this range are reported by broken displays, and ignored.
+     */
+    private static final float MIN_REFRESH_RATE = 24;
+    private static final float MAX_REFRESH_RATE = 240;
+
+    private static volatile float sFrameDuration = DEFAULT_FRAME_DURATION;
+
+    /**
+     * Frame pacing's constructor.
+     */
+    private RevealatorFramePacing() {
+    }
+
+    /**
+     * Reads the refresh rate of the display showing a view. Must be called on the UI thread.
+     *
+     * @param view View about to be animated.
+     */
+    static void update(final View view) {
+        // - Displays were 60Hz only before Android 4.2.
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            updateFromDisplay(view);
+        }
+    }
+
+    /**
+     * Reads the refresh rate of the display showing a view, if attached.
+     *
+     * @param view View about to be animated.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+    private static void updateFromDisplay(final View view) {
+        final Display display = view.getDisplay();
+        if (display == null) {
+            return;
+        }
+        final float refreshRate = display.getRefreshRate();
+        if (refreshRate >= MIN_REFRESH_RATE && refreshRate <= MAX_REFRESH_RATE) {
+            sFrameDuration = 1000 / refreshRate;
+        }
+    }
+
+    /**
+     * Get the duration of a frame of the last read display.
+     *
+     * @return Frame duration, in milliseconds.
+     */
+    static float getFrameDuration() {
+        return sFrameDuration;
+    }
+
+    /**
+     * Get the frames count of a duration, the last frame being the end.
+     *
+     * @param duration      Duration.
+     * @param frameDuration Frame duration.
+     * @return Frames count. At least 1.
+     */
+    static int getFramesCount(final long duration, final float frameDuration) {
+        return Math.max(1, (int) Math.ceil(duration / frameDuration - 0.001f));
+    }
+
+    /**
+     * Snaps a delay to the nearest vsync boundary.
+     *
+     * @param delay         Delay.
+     * @param frameDuration Frame duration.
+     * @return Snapped delay.
+     */
+    static long snapDelay(final long delay, final float frameDuration) {
+        return Math.round(Math.round(delay / frameDuration) * frameDuration);
+    }
+
+    /**
+     * Snaps a time to the nearest vsync boundary, counted from a frame time, without going past the current frame.
+     *
+     * @param time          Time to snap.
+     * @param anchorTime    Frame time, like the animation start.
+     * @param frameTime     Current frame time.
+     * @param frameDuration Frame duration.
+     * @return Snapped time.
+     */
+    static long snapTime(final long time, final long anchorTime, final long frameTime, final float frameDuration) {
+        return Math.min(frameTime, anchorTime + snapDelay(time - anchorTime, frameDuration));
+    }
+
+}
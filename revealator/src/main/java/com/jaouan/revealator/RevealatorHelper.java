@@ -1,22 +1,13 @@
 package com.jaouan.revealator;
 
 import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.graphics.PointF;
+import android.animation.ValueAnimator;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.AccelerateDecelerateInterpolator;
-import android.view.animation.AccelerateInterpolator;
-import android.view.animation.Animation;
-import android.view.animation.AnimationSet;
-import android.view.animation.BounceInterpolator;
-import android.view.animation.DecelerateInterpolator;
-import android.view.animation.ScaleAnimation;
-import android.view.animation.TranslateAnimation;
-
-import com.jaouan.revealator.animations.AnimationListenerAdapter;
-import com.jaouan.revealator.animations.BezierTranslateAnimation;
+import android.view.ViewParent;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import io.codetail.animation.ViewAnimationUtils;
@@ -33,166 +24,182 @@ final class RevealatorHelper {
     }
 
     /**
-     * Helps to hide then translate a view to another view.
+     * Nanoseconds in a millisecond.
+     */
+    static final long NANOS_PER_MILLI = 1000000;
+
+    /**
+     * Helps to create a circular reveal or unreveal animator.
+     * <p/>
+     * Views are ticked even when detached, like a RecyclerView item in cache or a removed fragment view, and native circular reveal throws on them.
      *
-     * @param fromView                       From view.
-     * @param toView                         Target view.
-     * @param duration                       Duration.
-     * @param curvedTranslation              Curved translation.
-     * @param controlPoint                   Curved angle.
-     * @param hideFromViewAtInterpolatedTime Start hiding from view interpolated time. Must be between 0 and 1.
-     * @param animationListener              Animation listener.
+     * @param view     View to reveal or unreveal.
+     * @param geometry View's geometry.
+     * @param reveal   True to reveal, false to unreveal.
+     * @return Circular reveal animator. Null if view is detached, as there is nothing to animate.
      */
-    static void translateAndHideView(final View fromView, final View toView, final long duration, final boolean curvedTranslation, final PointF controlPoint, final float hideFromViewAtInterpolatedTime, final Animation.AnimationListener animationListener) {
-        // - Determine translate delta.
-        final PointF delta = getCenterLocationsDelta(fromView, toView);
+    static Animator createCircularReveal(final View view, final RevealGeometry geometry, final boolean reveal) {
+        if (view.getWindowToken() == null) {
+            return null;
+        }
+        geometry.ensureValid();
+        final float radius = geometry.getRadius();
+        return ViewAnimationUtils.createCircularReveal(view, geometry.getCenterX(), geometry.getCenterY(), reveal ? 0 : radius, reveal ? radius : 0);
+    }
 
-        // - Prepare translate animation.
-        Animation translateAnimation;
-        if (curvedTranslation) {
-            translateAnimation = new BezierTranslateAnimation(0, delta.x, 0, delta.y, controlPoint);
+    /**
+     * Helps to start an animator driven by the {@link RevealatorTicker}.
+     * <p/>
+     * Value animators are not started, their play time is set on each tick. Other animators (like Lollipop's native circular reveal) run by themselves.
+     *
+     * @param animator Animator. Can be null.
+     */
+    static void startTickedAnimator(final Animator animator) {
+        if (animator == null) {
+            return;
+        }
+        if (animator instanceof ValueAnimator) {
+            final List<Animator.AnimatorListener> listeners = getListenersCopy(animator);
+            for (int listenerIndex = 0; listenerIndex < listeners.size(); listenerIndex++) {
+                listeners.get(listenerIndex).onAnimationStart(animator);
+            }
         } else {
-            translateAnimation = new TranslateAnimation(0, delta.x, 0, delta.y);
+            animator.start();
         }
-        translateAnimation.setDuration(duration);
-        translateAnimation.setInterpolator(new AccelerateInterpolator());
+    }
 
-        // - Prepare hide animation.
-        final ScaleAnimation hideAnimation = new ScaleAnimation(fromView.getScaleX(), 0, fromView.getScaleY(), 0, Animation.ABSOLUTE, delta.x + fromView.getMeasuredWidth() / 2, Animation.ABSOLUTE, delta.y + fromView.getMeasuredHeight() / 2);
-        hideAnimation.setDuration((long) (duration * Math.min(1, Math.max(0, 1 - hideFromViewAtInterpolatedTime))));
-        hideAnimation.setStartOffset((long) (duration * Math.min(1, Math.max(0, hideFromViewAtInterpolatedTime))));
-        hideAnimation.setInterpolator(new AccelerateInterpolator());
+    /**
+     * Helps to set play time of an animator driven by the {@link RevealatorTicker}.
+     *
+     * @param animator Animator. Can be null.
+     * @param playTime Play time.
+     */
+    static void setTickedAnimatorPlayTime(final Animator animator, final long playTime) {
+        if (animator instanceof ValueAnimator) {
+            ((ValueAnimator) animator).setCurrentPlayTime(playTime);
+        }
+    }
 
-        // - Prepare animations set.
-        final AnimationSet animationSet = new AnimationSet(true);
-        animationSet.addAnimation(translateAnimation);
-        animationSet.addAnimation(hideAnimation);
-        animationSet.setAnimationListener(new AnimationListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                fromView.setVisibility(View.INVISIBLE);
+    /**
+     * Helps to end an animator driven by the {@link RevealatorTicker}.
+     *
+     * @param animator Animator. Can be null.
+     */
+    static void endTickedAnimator(final Animator animator) {
+        if (animator == null) {
+            return;
+        }
+        if (animator instanceof ValueAnimator) {
+            final List<Animator.AnimatorListener> listeners = getListenersCopy(animator);
+            for (int listenerIndex = 0; listenerIndex < listeners.size(); listenerIndex++) {
+                listeners.get(listenerIndex).onAnimationEnd(animator);
             }
-        });
-        animationSet.setAnimationListener(animationListener);
-
-        // - Let's move !
-        fromView.startAnimation(animationSet);
+        } else if (animator.isRunning()) {
+            animator.end();
+        }
     }
 
     /**
-     * Helps to translate then show a view to another view.
+     * Get a copy of animator's listeners, so listeners can remove themselves.
      *
-     * @param viewToTranslate                  View to translate..
-     * @param fromView                         From view.
-     * @param startDelay                       Start delay.
-     * @param duration                         Translate duration.
-     * @param curvedTranslation                Curved translation.
-     * @param controlPoint                     Curved angle.
-     * @param showFromViewInterpolatedDuration Show from view interpolated duration. Must be between 0 and 1.
+     * @param animator Animator.
+     * @return Listeners.
      */
-    static void showAndTranslateView(final View viewToTranslate, final View fromView, final int startDelay, final int duration, final boolean curvedTranslation, final PointF controlPoint, float showFromViewInterpolatedDuration, final Runnable animationEndCallBack) {
-        // - Determine translate delta.
-        final PointF delta = getCenterLocationsDelta(viewToTranslate, fromView);
-
-        // - Prepare show animation.
-        final ScaleAnimation showAnimation = new ScaleAnimation(0, viewToTranslate.getScaleX(), 0, viewToTranslate.getScaleY(), Animation.RELATIVE_TO_SELF, .5f, Animation.RELATIVE_TO_SELF, .5f);
-        showAnimation.setDuration((long) (duration * Math.min(1, Math.max(0, showFromViewInterpolatedDuration))));
-        showAnimation.setInterpolator(new BounceInterpolator());
+    private static List<Animator.AnimatorListener> getListenersCopy(final Animator animator) {
+        final List<Animator.AnimatorListener> listeners = animator.getListeners();
+        return listeners == null ? Collections.<Animator.AnimatorListener>emptyList() : new ArrayList<>(listeners);
+    }
 
-        // - Prepare translate animation.
-        Animation translateAnimation;
-        if (curvedTranslation) {
-            translateAnimation = new BezierTranslateAnimation(delta.x, 0, delta.y, 0, controlPoint);
-        } else {
-            translateAnimation = new TranslateAnimation(delta.x, 0, delta.y, 0);
+    /**
+     * Helps to find all visible direct childs of a view group.
+     *
+     * @param viewGroup     View group.
+     * @param ordoredChilds Childs list where visible childs will be added.
+     */
+    static void findVisibleDirectChilds(final ViewGroup viewGroup, final List<View> ordoredChilds) {
+        for (int childViewIndex = 0; childViewIndex < viewGroup.getChildCount(); childViewIndex++) {
+            final View childView = viewGroup.getChildAt(childViewIndex);
+            if (childView.getVisibility() == View.VISIBLE) {
+                ordoredChilds.add(childView);
+            }
         }
-        translateAnimation.setDuration(duration);
-        translateAnimation.setStartOffset((long) (duration * 0.1f));
-        translateAnimation.setInterpolator(new DecelerateInterpolator());
+    }
 
-        // - Prepare animations set.
-        final AnimationSet animationSet = new AnimationSet(true);
-        animationSet.setStartOffset(startDelay);
-        animationSet.addAnimation(showAnimation);
-        animationSet.addAnimation(translateAnimation);
-        animationSet.setAnimationListener(new AnimationListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                viewToTranslate.setVisibility(View.VISIBLE);
-                animationEndCallBack.run();
+    /**
+     * Helps to find recursivly the nearest view group ancestors of all visible childs in a view group.
+     * Visible direct childs of the view group are found as is. Hidden view groups are skipped, with their childs.
+     *
+     * @param viewGroup      View group.
+     * @param ordoredParents Childs list where ancestors will be added.
+     */
+    static void findVisibleChildsParents(final ViewGroup viewGroup, final List<View> ordoredParents) {
+        for (int childViewIndex = 0; childViewIndex < viewGroup.getChildCount(); childViewIndex++) {
+            final View childView = viewGroup.getChildAt(childViewIndex);
+            if (childView.getVisibility() != View.VISIBLE) {
+                continue;
             }
-        });
-
-        // - Let's move !
-        viewToTranslate.startAnimation(animationSet);
+            if (childView instanceof ViewGroup) {
+                findVisibleLeavesParents((ViewGroup) childView, ordoredParents);
+            } else {
+                ordoredParents.add(childView);
+            }
+        }
     }
 
     /**
-     * Helps to reveal a view.
+     * Adds a visible view group if it has visible leaf childs, or looks for them in its visible view group childs.
      *
-     * @param viewToReveal         View to reveal.
-     * @param duration             Duration.
-     * @param animationEndCallBack Callback fired on animation end.
+     * @param viewGroup      View group.
+     * @param ordoredParents Childs list where ancestors will be added.
      */
-    static void revealView(final View viewToReveal, final int duration, final Runnable animationEndCallBack) {
-        // - Determine circle location and size.
-        int viewCenterX = (viewToReveal.getLeft() + viewToReveal.getRight()) / 2;
-        int viewCenterY = (viewToReveal.getTop() + viewToReveal.getBottom()) / 2;
-        int viewDiameterX = Math.max(viewCenterX, viewToReveal.getWidth() - viewCenterX);
-        int viewDiameterY = Math.max(viewCenterY, viewToReveal.getHeight() - viewCenterY);
-        float finalRadius = (float) Math.hypot(viewDiameterX, viewDiameterY);
-
-        // - Prepare animation.
-        final Animator circularRevealAnimator =
-                ViewAnimationUtils.createCircularReveal(viewToReveal, viewCenterX, viewCenterY, 0, finalRadius);
-        circularRevealAnimator.setInterpolator(new DecelerateInterpolator());
-        circularRevealAnimator.setDuration(duration);
-        circularRevealAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                viewToReveal.setVisibility(View.VISIBLE);
+    private static void findVisibleLeavesParents(final ViewGroup viewGroup, final List<View> ordoredParents) {
+        for (int childViewIndex = 0; childViewIndex < viewGroup.getChildCount(); childViewIndex++) {
+            final View childView = viewGroup.getChildAt(childViewIndex);
+            if (!(childView instanceof ViewGroup) && childView.getVisibility() == View.VISIBLE) {
+                // - Whole view group is animated, including its view group childs.
+                ordoredParents.add(viewGroup);
+                return;
             }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                animationEndCallBack.run();
+        }
+        for (int childViewIndex = 0; childViewIndex < viewGroup.getChildCount(); childViewIndex++) {
+            final View childView = viewGroup.getChildAt(childViewIndex);
+            // - A hidden view group stays hidden, so it is neither animated nor searched.
+            if (childView instanceof ViewGroup && childView.getVisibility() == View.VISIBLE) {
+                findVisibleLeavesParents((ViewGroup) childView, ordoredParents);
             }
-        });
-
-        // Let's reveal !
-        circularRevealAnimator.start();
+        }
     }
 
     /**
-     * Helps to unreveal a view.
+     * Captures the laid out bounds of childs, relative to one of their ancestors.
      *
-     * @param viewToUnreveal       View to unreveal.
-     * @param duration             Duration.
-     * @param animationEndCallBack Callback fired on animation end.
+     * @param ancestor    Ancestor.
+     * @param childsViews Childs.
+     * @return Left, top, right and bottom of each child.
      */
-    static void unrevealView(final View viewToUnreveal, final int duration, final Runnable animationEndCallBack) {
-        // - Determine circle location and size.
-        int viewCenterX = (viewToUnreveal.getLeft() + viewToUnreveal.getRight()) / 2;
-        int viewCenterY = (viewToUnreveal.getTop() + viewToUnreveal.getBottom()) / 2;
-        int viewDiameterX = Math.max(viewCenterX, viewToUnreveal.getWidth() - viewCenterX);
-        int viewDiameterY = Math.max(viewCenterY, viewToUnreveal.getHeight() - viewCenterY);
-        float finalRadius = (float) Math.hypot(viewDiameterX, viewDiameterY);
-
-        // - Prepare animation.
-        final Animator circularRevealAnimator =
-                ViewAnimationUtils.createCircularReveal(viewToUnreveal, viewCenterX, viewCenterY, finalRadius, 0);
-        circularRevealAnimator.setInterpolator(new AccelerateDecelerateInterpolator());
-        circularRevealAnimator.setDuration(duration);
-        circularRevealAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                viewToUnreveal.setVisibility(View.INVISIBLE);
-                animationEndCallBack.run();
+    static float[] captureChildsBounds(final View ancestor, final List<View> childsViews) {
+        final float[] childsBounds = new float[childsViews.size() * 4];
+        for (int childIndex = 0; childIndex < childsViews.size(); childIndex++) {
+            final View childView = childsViews.get(childIndex);
+            int left = 0;
+            int top = 0;
+            View view = childView;
+            while (view != null && view != ancestor) {
+                left += view.getLeft();
+                top += view.getTop();
+                final ViewParent parent = view.getParent();
+                view = parent instanceof View ? (View) parent : null;
+                if (view != null && view != ancestor) {
+                    left -= view.getScrollX();
+                    top -= view.getScrollY();
+                }
             }
-        });
-
-        // Let's reveal !
-        circularRevealAnimator.start();
+            childsBounds[childIndex * 4] = left;
+            childsBounds[childIndex * 4 + 1] = top;
+            childsBounds[childIndex * 4 + 2] = left + childView.getWidth();
+            childsBounds[childIndex * 4 + 3] = top + childView.getHeight();
+        }
+        return childsBounds;
     }
 
     /**
@@ -214,43 +221,4 @@ final class RevealatorHelper {
         }
     }
 
-    /**
-     * Helps to show views.
-     *
-     * @param views             Views to show.
-     * @param animationDuration Animation duration.
-     * @param animationDelay    Animation delay.
-     */
-    static void orderedShowViews(final List<View> views, long animationDuration, int animationDelay) {
-        if (views != null) {
-            for (int viewIndex = 0; viewIndex < views.size(); viewIndex++) {
-                final View childView = views.get(viewIndex);
-                childView.setVisibility(View.VISIBLE);
-                final ScaleAnimation scaleAnimation = new ScaleAnimation(0, childView.getScaleX(), 0, childView.getScaleY(), Animation.RELATIVE_TO_SELF, .5f, Animation.RELATIVE_TO_SELF, .5f);
-                scaleAnimation.setInterpolator(new DecelerateInterpolator());
-                scaleAnimation.setDuration(animationDuration);
-                scaleAnimation.setStartOffset(viewIndex * animationDelay);
-                childView.startAnimation(scaleAnimation);
-            }
-        }
-    }
-
-    /**
-     * Get center locations delta between two views.
-     *
-     * @param viewA View A.
-     * @param viewB View B.
-     * @return Locations delta as a point.
-     */
-    private static PointF getCenterLocationsDelta(final View viewA, final View viewB) {
-        final int[] fromLocation = new int[2];
-        viewA.getLocationOnScreen(fromLocation);
-        final int[] toLocation = new int[2];
-        viewB.getLocationOnScreen(toLocation);
-        final int deltaX = toLocation[0] - fromLocation[0] + viewB.getMeasuredWidth() / 2 - viewA.getMeasuredWidth() / 2;
-        final int deltaY = toLocation[1] - fromLocation[1] + viewB.getMeasuredHeight() / 2 - viewA.getMeasuredHeight() / 2;
-        return new PointF(deltaX, deltaY);
-    }
-
-
 }
@@ -0,0 +1,230 @@
+package com.jaouan.revealator;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Shared frame scheduler of the revealator.
+ * <p/>
+ * All running reveal/unreveal animations are ticked from one single frame callback, so N simultaneous animations cost one callback per frame instead of N.
+ * Must only be used from the UI thread.
+ */
+final class RevealatorTicker {
+
+    /**
+     * Something ticked on each frame.
+     */
+    interface Tickable {
+
+        /**
+         * Called on each frame.
+         *
+         * @param frameTimeNanos Frame time, in nanoseconds.
+         * @return True if tickable must be ticked on next frame, false if it has ended.
+         */
+        boolean onFrame(long frameTimeNanos);
+
+        /**
+         * Called when tickable is removed before its end.
+         */
+        void onCancel();
+
+    }
+
+    /**
+     * Fallback frame delay when Choreographer is not available.
+     */
+    private static final long FALLBACK_FRAME_DELAY = 10;
+
+    private static RevealatorTicker sInstance;
+
+    private final FrameScheduler mFrameScheduler;
+
+    private Tickable[] mTickables = new Tickable[8];
+
+    private int mTickablesCount;
+
+    private boolean mFrameScheduled;
+
+    private boolean mTicking;
+
+    /**
+     * Get the ticker.
+     *
+     * @return Ticker.
+     */
+    static RevealatorTicker getInstance() {
+        if (sInstance == null) {
+            sInstance = new RevealatorTicker();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Ticker's constructor.
+     */
+    private RevealatorTicker() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mFrameScheduler = new ChoreographerFrameScheduler(this);
+        } else {
+            mFrameScheduler = new HandlerFrameScheduler(this);
+        }
+    }
+
+    /**
+     * Adds a tickable. It will be ticked from the next frame.
+     *
+     * @param tickable Tickable.
+     */
+    void add(final Tickable tickable) {
+        if (mTickablesCount == mTickables.length) {
+            final Tickable[] tickables = new Tickable[mTickablesCount * 2];
+            System.arraycopy(mTickables, 0, tickables, 0, mTickablesCount);
+            mTickables = tickables;
+        }
+        mTickables[mTickablesCount++] = tickable;
+        scheduleFrame();
+    }
+
+    /**
+     * Removes a tickable before its end. Tickable is notified by {@link Tickable#onCancel()}.
+     *
+     * @param tickable Tickable.
+     * @return True if tickable was running.
+     */
+    boolean cancel(final Tickable tickable) {
+        for (int tickableIndex = 0; tickableIndex < mTickablesCount; tickableIndex++) {
+            if (mTickables[tickableIndex] == tickable) {
+                mTickables[tickableIndex] = null;
+                if (!mTicking) {
+                    compact();
+                }
+                tickable.onCancel();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ticks all tickables.
+     *
+     * @param frameTimeNanos Frame time, in nanoseconds.
+     */
+    private void doFrame(final long frameTimeNanos) {
+        mFrameScheduled = false;
+        mTicking = true;
+        RevealatorTrace.invalidateEnabled();
+        RevealatorTrace.beginSection(RevealatorTrace.SECTION_FRAME);
+        try {
+            // - Tickables added during the frame are appended, so the count is re-read on each iteration.
+            for (int tickableIndex = 0; tickableIndex < mTickablesCount; tickableIndex++) {
+                final Tickable tickable = mTickables[tickableIndex];
+                if (tickable != null && !tickable.onFrame(frameTimeNanos)) {
+                    mTickables[tickableIndex] = null;
+                }
+            }
+        } finally {
+            RevealatorTrace.endSection();
+            mTicking = false;
+        }
+        compact();
+        if (mTickablesCount > 0) {
+            scheduleFrame();
+        }
+    }
+
+    /**
+     * Removes empty slots, keeping tickables order.
+     */
+    private void compact() {
+        int writeIndex = 0;
+        for (int readIndex = 0; readIndex < mTickablesCount; readIndex++) {
+            final Tickable tickable = mTickables[readIndex];
+            if (tickable != null) {
+                mTickables[writeIndex++] = tickable;
+            }
+        }
+        for (int clearIndex = writeIndex; clearIndex < mTickablesCount; clearIndex++) {
+            mTickables[clearIndex] = null;
+        }
+        mTickablesCount = writeIndex;
+    }
+
+    /**
+     * Schedules next frame if necessary.
+     */
+    private void scheduleFrame() {
+        if (!mFrameScheduled) {
+            mFrameScheduled = true;
+            mFrameScheduler.scheduleFrame();
+        }
+    }
+
+    /**
+     * Frame scheduler.
+     */
+    private interface FrameScheduler {
+
+        /**
+         * Schedules one frame callback.
+         */
+        void scheduleFrame();
+
+    }
+
+    /**
+     * Choreographer based frame scheduler, synced with vsync.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class ChoreographerFrameScheduler implements FrameScheduler, Choreographer.FrameCallback {
+
+        private final RevealatorTicker mTicker;
+
+        private final Choreographer mChoreographer = Choreographer.getInstance();
+
+        ChoreographerFrameScheduler(final RevealatorTicker ticker) {
+            mTicker = ticker;
+        }
+
+        @Override
+        public void scheduleFrame() {
+            mChoreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(final long frameTimeNanos) {
+            mTicker.doFrame(frameTimeNanos);
+        }
+
+    }
+
+    /**
+     * Handler based frame scheduler, for Android 4.0.
+     */
+    private static final class HandlerFrameScheduler implements FrameScheduler, Runnable {
+
+        private final RevealatorTicker mTicker;
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        HandlerFrameScheduler(final RevealatorTicker ticker) {
+            mTicker = ticker;
+        }
+
+        @Override
+        public void scheduleFrame() {
+            mHandler.postDelayed(this, FALLBACK_FRAME_DELAY);
+        }
+
+        @Override
+        public void run() {
+            mTicker.doFrame(System.nanoTime());
+        }
+
+    }
+
+}
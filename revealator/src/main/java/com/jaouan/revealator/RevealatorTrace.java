@@ -0,0 +1,189 @@
+package com.jaouan.revealator;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+
+/**
+ * Systrace/Perfetto sections of the revealator.
+ * <p/>
+ * Sections names are constants, so nothing is allocated, and sections are no-op when tracing is off or unsupported.
+ */
+final class RevealatorTrace {
+
+    static final String SECTION_FRAME = "Revealator#frame";
+    static final String SECTION_REVEAL_START = "Revealator#revealStart";
+    static final String SECTION_UNREVEAL_START = "Revealator#unrevealStart";
+    static final String SECTION_FIND_CHILDS = "Revealator#findChilds";
+    static final String SECTION_CREATE_ANIMATION = "Revealator#createAnimation";
+    static final String SECTION_PLAN = "Revealator#plan";
+    static final String SECTION_INFLATE = "Revealator#inflate";
+    static final String SECTION_TRANSLATE = "Revealator#translate";
+    static final String SECTION_REVEAL = "Revealator#reveal";
+    static final String SECTION_CHILDS = "Revealator#childs";
+    static final String SECTION_UNREVEAL = "Revealator#unreveal";
+
+    static final String ASYNC_SECTION_REVEAL = "Revealator reveal";
+    static final String ASYNC_SECTION_UNREVEAL = "Revealator unreveal";
+
+    /**
+     * Cookie returned when async section has not been started.
+     */
+    static final int NO_COOKIE = 0;
+
+    /**
+     * android.os.Trace.TRACE_TAG_APP.
+     */
+    private static final long TRACE_TAG_APP = 1L << 12;
+
+    private static final boolean SECTIONS_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+    private static Method sIsEnabledMethod;
+
+    private static Method sBeginAsyncSectionMethod;
+
+    private static Method sEndAsyncSectionMethod;
+
+    private static boolean sAsyncSectionsSupported;
+
+    private static int sLastCookie = NO_COOKIE;
+
+    /**
+     * Arguments of the "is enabled" method, built once so checking does not allocate.
+     */
+    private static Object[] sIsEnabledArguments;
+
+    /**
+     * Tracing state, checked at most once per frame.
+     */
+    private static boolean sEnabledChecked;
+
+    private static boolean sEnabled;
+
+    static {
+        // - Async sections are public since Android 10, and hidden before.
+        try {
+            if (Build.VERSION.SDK_INT >= 29) {
+                sIsEnabledMethod = Trace.class.getMethod("isEnabled");
+                sIsEnabledArguments = new Object[0];
+                sBeginAsyncSectionMethod = Trace.class.getMethod("beginAsyncSection", String.class, int.class);
+                sEndAsyncSectionMethod = Trace.class.getMethod("endAsyncSection", String.class, int.class);
+                sAsyncSectionsSupported = true;
+            } else if (SECTIONS_SUPPORTED) {
+                sIsEnabledMethod = Trace.class.getMethod("isTagEnabled", long.class);
+                sIsEnabledArguments = new Object[]{TRACE_TAG_APP};
+                sBeginAsyncSectionMethod = Trace.class.getMethod("asyncTraceBegin", long.class, String.class, int.class);
+                sEndAsyncSectionMethod = Trace.class.getMethod("asyncTraceEnd", long.class, String.class, int.class);
+                sAsyncSectionsSupported = true;
+            }
+        } catch (final Exception exception) {
+            sAsyncSectionsSupported = false;
+        }
+    }
+
+    /**
+     * Disallow instantiation.
+     */
+    private RevealatorTrace() {
+    }
+
+    /**
+     * Begins a section. Must be ended by {@link #endSection()} on the same thread.
+     *
+     * @param sectionName Section name.
+     */
+    static void beginSection(final String sectionName) {
+        if (SECTIONS_SUPPORTED) {
+            TraceJellyBeanMr2.beginSection(sectionName);
+        }
+    }
+
+    /**
+     * Ends last begun section.
+     */
+    static void endSection() {
+        if (SECTIONS_SUPPORTED) {
+            TraceJellyBeanMr2.endSection();
+        }
+    }
+
+    /**
+     * Forgets the tracing state, so it is checked again by next async section. Called once per frame.
+     */
+    static void invalidateEnabled() {
+        sEnabledChecked = false;
+    }
+
+    /**
+     * Begins an async section, if tracing is on. Must be called from a frame of the {@link RevealatorTicker}.
+     *
+     * @param sectionName Section name.
+     * @return Cookie to end the section with, or {@link #NO_COOKIE}.
+     */
+    static int beginAsyncSection(final String sectionName) {
+        if (!sAsyncSectionsSupported) {
+            return NO_COOKIE;
+        }
+        try {
+            if (!sEnabledChecked) {
+                sEnabled = (Boolean) sIsEnabledMethod.invoke(null, sIsEnabledArguments);
+                sEnabledChecked = true;
+            }
+            if (!sEnabled) {
+                return NO_COOKIE;
+            }
+            if (++sLastCookie == NO_COOKIE) {
+                ++sLastCookie;
+            }
+            if (Build.VERSION.SDK_INT >= 29) {
+                sBeginAsyncSectionMethod.invoke(null, sectionName, sLastCookie);
+            } else {
+                sBeginAsyncSectionMethod.invoke(null, TRACE_TAG_APP, sectionName, sLastCookie);
+            }
+            return sLastCookie;
+        } catch (final Exception exception) {
+            sAsyncSectionsSupported = false;
+            return NO_COOKIE;
+        }
+    }
+
+    /**
+     * Ends an async section.
+     *
+     * @param sectionName Section name.
+     * @param cookie      Cookie returned by {@link #beginAsyncSection(String)}.
+     */
+    static void endAsyncSection(final String sectionName, final int cookie) {
+        if (cookie == NO_COOKIE || !sAsyncSectionsSupported) {
+            return;
+        }
+        try {
+            if (Build.VERSION.SDK_INT >= 29) {
+                sEndAsyncSectionMethod.invoke(null, sectionName, cookie);
+            } else {
+                sEndAsyncSectionMethod.invoke(null, TRACE_TAG_APP, sectionName, cookie);
+            }
+        } catch (final Exception exception) {
+            sAsyncSectionsSupported = false;
+        }
+    }
+
+    /**
+     * Android 4.3+ trace sections.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static final class TraceJellyBeanMr2 {
+
+        static void beginSection(final String sectionName) {
+            Trace.beginSection(sectionName);
+        }
+
+        static void endSection() {
+            Trace.endSection();
+        }
+
+    }
+
+}
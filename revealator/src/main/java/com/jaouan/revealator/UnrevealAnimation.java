@@ -0,0 +1,349 @@
+package com.jaouan.revealator;
+
+import android.animation.Animator;
+import android.graphics.PointF;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.BounceInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Unreveal animation, ticked by the {@link RevealatorTicker}.
+ * <p/>
+ * The circular unreveal runs first, and the "to view" shows and translates back before unreveal's end.
+ */
+final class UnrevealAnimation implements RevealatorTicker.Tickable, RevealState.Starter {
+
+    private static final Interpolator UNREVEAL_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+    private static final Interpolator SHOW_INTERPOLATOR = new BounceInterpolator();
+    private static final Interpolator TRANSLATE_INTERPOLATOR = new DecelerateInterpolator();
+
+    /**
+     * "To view" starts to show at this interpolated time of the unreveal.
+     */
+    private static final float TO_VIEW_START_INTERPOLATED_TIME = .9f;
+
+    /**
+     * "To view" starts to translate at this interpolated time of the translate duration.
+     */
+    private static final float TO_VIEW_TRANSLATE_START_INTERPOLATED_TIME = .1f;
+
+    private final UnrevealSpec mSpec;
+
+    private final View mViewToUnreveal;
+
+    private final View mToView;
+
+    private final int mUnrevealDuration;
+
+    private final int mTranslateDuration;
+
+    private final float mShowFromViewInterpolatedDuration;
+
+    private final PointF mCurveControlPoint;
+
+    private RevealGeometry mGeometry;
+
+    private CurveTable mTranslateCurveTable;
+
+    private long mToViewStartDelay;
+
+    private Runnable mEndAction;
+
+    private RevealListener mListener;
+
+    private long mStartTime = -1;
+
+    private Animator mUnrevealAnimator;
+
+    private boolean mUnrevealEnded;
+
+    private boolean mToViewStarted;
+
+    private boolean mToViewEnded;
+
+    private float mTranslateDeltaX;
+
+    private float mTranslateDeltaY;
+
+    private float mTranslateControlX;
+
+    private float mTranslateControlY;
+
+    private final PointF mTranslatePosition = new PointF();
+
+    private float mToViewTranslationX;
+
+    private float mToViewTranslationY;
+
+    private float mToViewScaleX;
+
+    private float mToViewScaleY;
+
+    private int mTraceCookie = RevealatorTrace.NO_COOKIE;
+
+    /**
+     * Unreveal animation's constructor. Animation is reused by the reveal state of the view, and prepared on each start.
+     *
+     * @param spec           Unreveal spec.
+     * @param viewToUnreveal View to unreveal.
+     * @param toView         View to translate after the unreveal. Can be null.
+     */
+    UnrevealAnimation(final UnrevealSpec spec, final View viewToUnreveal, final View toView) {
+        mSpec = spec;
+        mViewToUnreveal = viewToUnreveal;
+        mToView = toView;
+        mUnrevealDuration = spec.getUnrevealDuration();
+        mTranslateDuration = spec.getTranslateDuration();
+        mShowFromViewInterpolatedDuration = Math.min(1, Math.max(0, spec.getShowFromViewInterpolatedDuration()));
+        mCurveControlPoint = spec.getCurveControlPoint();
+    }
+
+    /**
+     * Checks if the animation unreveals a view the same way.
+     *
+     * @param spec   Unreveal spec.
+     * @param toView View to translate after the unreveal. Can be null.
+     * @return True if animation can be reused.
+     */
+    boolean isSame(final UnrevealSpec spec, final View toView) {
+        return mSpec == spec && mToView == toView;
+    }
+
+    @Override
+    public void start(final Runnable endAction, final RevealListener listener) {
+        RevealatorTrace.beginSection(RevealatorTrace.SECTION_UNREVEAL_START);
+        try {
+            RevealatorFramePacing.update(mViewToUnreveal);
+
+            // - Prepare the animation, as nothing runs on the view now. "To view" starts on a vsync boundary.
+            final float frameDuration = RevealatorFramePacing.getFrameDuration();
+            mGeometry = RevealGeometry.obtain(mViewToUnreveal, mToView);
+            mTranslateCurveTable = mSpec.getTranslateCurveTable(frameDuration);
+            mToViewStartDelay = RevealatorFramePacing.snapDelay((long) (mUnrevealDuration * TO_VIEW_START_INTERPOLATED_TIME), frameDuration);
+            mEndAction = endAction;
+            mListener = listener;
+            mStartTime = -1;
+            mUnrevealEnded = false;
+            mToViewStarted = false;
+            mToViewEnded = mToView == null;
+            mTraceCookie = RevealatorTrace.NO_COOKIE;
+
+            // - Unreveal the view then show and translate the "to view" if necessary, ticked by the shared ticker.
+            RevealState.obtain(mViewToUnreveal).onStarted(RevealState.REQUEST_UNREVEAL, this);
+            RevealatorTicker.getInstance().add(this);
+        } finally {
+            RevealatorTrace.endSection();
+        }
+    }
+
+    @Override
+    public boolean onFrame(final long frameTimeNanos) {
+        final long frameTime = frameTimeNanos / RevealatorHelper.NANOS_PER_MILLI;
+        if (mStartTime < 0) {
+            start(frameTime);
+            if (mListener != null) {
+                mListener.onPhaseStart(RevealListener.PHASE_UNREVEAL);
+            }
+        }
+        final long elapsedTime = frameTime - mStartTime;
+
+        // - Unreveal.
+        if (!mUnrevealEnded) {
+            RevealatorTrace.beginSection(RevealatorTrace.SECTION_UNREVEAL);
+            try {
+                RevealatorHelper.setTickedAnimatorPlayTime(mUnrevealAnimator, Math.min(elapsedTime, mUnrevealDuration));
+                if (elapsedTime >= mUnrevealDuration) {
+                    endUnreveal();
+                }
+            } finally {
+                RevealatorTrace.endSection();
+            }
+            if (mListener != null) {
+                mListener.onProgress(RevealListener.PHASE_UNREVEAL, mUnrevealDuration > 0 ? Math.min(1, elapsedTime / (float) mUnrevealDuration) : 1);
+            }
+            if (mUnrevealEnded && mToView == null && mEndAction != null) {
+                mEndAction.run();
+            }
+        }
+
+        // - Show and translate "to view".
+        if (!mToViewEnded) {
+            final long toViewTime = elapsedTime - getToViewStartDelay();
+            if (toViewTime >= 0) {
+                if (!mToViewStarted && mListener != null) {
+                    mListener.onPhaseStart(RevealListener.PHASE_TRANSLATE);
+                }
+                RevealatorTrace.beginSection(RevealatorTrace.SECTION_TRANSLATE);
+                try {
+                    applyToView(Math.min(toViewTime, getToViewDuration()));
+                    if (toViewTime >= getToViewDuration()) {
+                        endToView();
+                    }
+                } finally {
+                    RevealatorTrace.endSection();
+                }
+                if (mListener != null) {
+                    mListener.onProgress(RevealListener.PHASE_TRANSLATE, getToViewDuration() > 0 ? Math.min(1, toViewTime / (float) getToViewDuration()) : 1);
+                    if (mToViewEnded) {
+                        mListener.onTranslateEnd();
+                    }
+                }
+                if (mToViewEnded && mEndAction != null) {
+                    mEndAction.run();
+                }
+            }
+        }
+
+        if (mUnrevealEnded && mToViewEnded) {
+            RevealatorTrace.endAsyncSection(RevealatorTrace.ASYNC_SECTION_UNREVEAL, mTraceCookie);
+            RevealState.obtain(mViewToUnreveal).onSettled(this);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void onCancel() {
+        // - Jump to final state, without firing end action nor animating views, which may be detached.
+        if (!mUnrevealEnded) {
+            endUnreveal();
+        }
+        if (!mToViewEnded) {
+            if (mToViewStarted) {
+                endToView();
+            } else {
+                mToView.setVisibility(View.VISIBLE);
+            }
+        }
+        mUnrevealEnded = true;
+        mToViewEnded = true;
+        RevealatorTrace.endAsyncSection(RevealatorTrace.ASYNC_SECTION_UNREVEAL, mTraceCookie);
+        mTraceCookie = RevealatorTrace.NO_COOKIE;
+        RevealState.obtain(mViewToUnreveal).onSettled(this);
+    }
+
+    /**
+     * Creates the curve table of the "to view" translation.
+     *
+     * @param curvedTranslation Curved translation.
+     * @param translateDuration Translate duration.
+     * @param frameDuration     Frame duration.
+     * @return Curve table.
+     */
+    static CurveTable createTranslateCurveTable(final boolean curvedTranslation, final long translateDuration, final float frameDuration) {
+        return CurveTable.create(TRANSLATE_INTERPOLATOR, curvedTranslation, translateDuration, frameDuration);
+    }
+
+    /**
+     * Starts animation.
+     *
+     * @param startTime Start time.
+     */
+    private void start(final long startTime) {
+        mStartTime = startTime;
+        mTraceCookie = RevealatorTrace.beginAsyncSection(RevealatorTrace.ASYNC_SECTION_UNREVEAL);
+
+        // - Determine translate delta while view to unreveal is still shown.
+        mGeometry.ensureValid();
+        if (mToView != null) {
+            mTranslateDeltaX = mGeometry.getTranslateDeltaX();
+            mTranslateDeltaY = mGeometry.getTranslateDeltaY();
+            // - Define the cross of the two tangents from point 0 and point 1 as control point if necessary.
+            mTranslateControlX = mCurveControlPoint != null ? mCurveControlPoint.x : mTranslateDeltaX;
+            mTranslateControlY = mCurveControlPoint != null ? mCurveControlPoint.y : 0;
+        }
+
+        RevealatorTrace.beginSection(RevealatorTrace.SECTION_CREATE_ANIMATION);
+        try {
+            // - A detached view is just hidden at unreveal's end, without animator.
+            mUnrevealAnimator = RevealatorHelper.createCircularReveal(mViewToUnreveal, mGeometry, false);
+            if (mUnrevealAnimator != null) {
+                mUnrevealAnimator.setInterpolator(UNREVEAL_INTERPOLATOR);
+                mUnrevealAnimator.setDuration(mUnrevealDuration);
+            }
+        } finally {
+            RevealatorTrace.endSection();
+        }
+        RevealatorHelper.startTickedAnimator(mUnrevealAnimator);
+    }
+
+    /**
+     * Ends unreveal.
+     */
+    private void endUnreveal() {
+        RevealatorHelper.endTickedAnimator(mUnrevealAnimator);
+        mUnrevealAnimator = null;
+        mViewToUnreveal.setVisibility(View.INVISIBLE);
+        mUnrevealEnded = true;
+    }
+
+    /**
+     * Get "to view" start delay, since unreveal start.
+     *
+     * @return Delay.
+     */
+    private long getToViewStartDelay() {
+        return mToViewStartDelay;
+    }
+
+    /**
+     * Get "to view" animation duration.
+     *
+     * @return Duration.
+     */
+    private long getToViewDuration() {
+        return getToViewTranslateStartDelay() + mTranslateDuration;
+    }
+
+    /**
+     * Get "to view" translate start delay, since "to view" animation start.
+     *
+     * @return Delay.
+     */
+    private long getToViewTranslateStartDelay() {
+        return (long) (mTranslateDuration * TO_VIEW_TRANSLATE_START_INTERPOLATED_TIME);
+    }
+
+    /**
+     * Applies "to view" animation at a given time.
+     *
+     * @param toViewTime Time since "to view" animation start.
+     */
+    private void applyToView(final long toViewTime) {
+        if (!mToViewStarted) {
+            mToViewStarted = true;
+            mToViewTranslationX = mToView.getTranslationX();
+            mToViewTranslationY = mToView.getTranslationY();
+            mToViewScaleX = mToView.getScaleX();
+            mToViewScaleY = mToView.getScaleY();
+            mToView.setVisibility(View.VISIBLE);
+        }
+
+        // - Show.
+        final long showDuration = (long) (mTranslateDuration * mShowFromViewInterpolatedDuration);
+        final float showScale = showDuration > 0 ? SHOW_INTERPOLATOR.getInterpolation(Math.min(1, toViewTime / (float) showDuration)) : 1;
+        mToView.setScaleX(mToViewScaleX * showScale);
+        mToView.setScaleY(mToViewScaleY * showScale);
+
+        // - Translate.
+        final long translateTime = Math.max(0, toViewTime - getToViewTranslateStartDelay());
+        mTranslateCurveTable.evaluate(mTranslateDuration > 0 ? translateTime / (float) mTranslateDuration : 1, mTranslateDeltaX, mTranslateDeltaY, mTranslateControlX, mTranslateControlY, 0, 0, mTranslatePosition);
+        mToView.setTranslationX(mToViewTranslationX + mTranslatePosition.x);
+        mToView.setTranslationY(mToViewTranslationY + mTranslatePosition.y);
+    }
+
+    /**
+     * Ends "to view" animation.
+     */
+    private void endToView() {
+        mToView.setTranslationX(mToViewTranslationX);
+        mToView.setTranslationY(mToViewTranslationY);
+        mToView.setScaleX(mToViewScaleX);
+        mToView.setScaleY(mToViewScaleY);
+        mToView.setVisibility(View.VISIBLE);
+        mToViewEnded = true;
+    }
+
+}
@@ -11,19 +11,15 @@ public class UnrevealBuilder {
 
     private View mViewToUnreveal;
 
-    private int mUnrevealDuration = 250;
-
-    private int mTranslateDuration = 250;
-
-    private float mShowFromViewInterpolatedDuration = 0.2f;
+    private View mToView;
 
-    private boolean mCurvedTranslation = false;
+    private Runnable mEndAction;
 
-    private PointF mCurveControlPoint;
+    private RevealListener mListener;
 
-    private Runnable mEndAction;
+    private UnrevealSpec.Builder mSpecBuilder = new UnrevealSpec.Builder();
 
-    private View mToView;
+    private UnrevealSpec mSpec;
 
     /**
      * Unreveal builder's contructor.
@@ -52,7 +48,8 @@ public class UnrevealBuilder {
      * @return Builder.
      */
     public UnrevealBuilder withUnrevealDuration(final int unrevealDuration) {
-        this.mUnrevealDuration = unrevealDuration;
+        this.mSpecBuilder.withUnrevealDuration(unrevealDuration);
+        this.mSpec = null;
         return this;
     }
 
@@ -63,7 +60,8 @@ public class UnrevealBuilder {
      * @return Builder.
      */
     public UnrevealBuilder withTranslateDuration(final int translateDuration) {
-        this.mTranslateDuration = translateDuration;
+        this.mSpecBuilder.withTranslateDuration(translateDuration);
+        this.mSpec = null;
         return this;
     }
 
@@ -74,7 +72,8 @@ public class UnrevealBuilder {
      * @return Builder.
      */
     public UnrevealBuilder withShowFromViewInterpolatedDuration(final float showFromViewInterpolatedDuration) {
-        this.mShowFromViewInterpolatedDuration = showFromViewInterpolatedDuration;
+        this.mSpecBuilder.withShowFromViewInterpolatedDuration(showFromViewInterpolatedDuration);
+        this.mSpec = null;
         return this;
     }
 
@@ -85,7 +84,8 @@ public class UnrevealBuilder {
      * @return Builder.
      */
     public UnrevealBuilder withCurvedTranslation() {
-        this.mCurvedTranslation = true;
+        this.mSpecBuilder.withCurvedTranslation();
+        this.mSpec = null;
         return this;
     }
 
@@ -96,12 +96,15 @@ public class UnrevealBuilder {
      * @return Builder.
      */
     public UnrevealBuilder withCurvedTranslation(final PointF curveControlPoint) {
-        this.mCurveControlPoint = curveControlPoint;
-        return this.withCurvedTranslation();
+        this.mSpecBuilder.withCurvedTranslation(curveControlPoint);
+        this.mSpec = null;
+        return this;
     }
 
     /**
      * Defines end action callback.
+     * <p/>
+     * If the view is requested to go back before this request has started, this request is dropped and its end action is not called.
      *
      * @param endAction End action callback.
      * @return Builder.
@@ -111,35 +114,37 @@ public class UnrevealBuilder {
         return this;
     }
 
+    /**
+     * Defines progress listener, called from the animation frames.
+     *
+     * @param listener Progress listener.
+     * @return Builder.
+     */
+    public UnrevealBuilder withListener(@NonNull final RevealListener listener) {
+        this.mListener = listener;
+        return this;
+    }
+
+    /**
+     * Defines the whole configuration from a spec, which is then reused as long as configuration is not changed.
+     *
+     * @param unrevealSpec Unreveal spec.
+     * @return Builder.
+     */
+    public UnrevealBuilder withSpec(@NonNull final UnrevealSpec unrevealSpec) {
+        this.mSpecBuilder = new UnrevealSpec.Builder(unrevealSpec);
+        this.mSpec = unrevealSpec;
+        return this;
+    }
+
     /**
      * Let's animate !
      */
     public void start() {
-        // - Reveal the view !
-        RevealatorHelper.unrevealView(this.mViewToUnreveal, this.mUnrevealDuration, new Runnable() {
-                    @Override
-                    public void run() {
-                        // - If no to view, fire end action if necessary.
-                        if (mToView == null && mEndAction != null) {
-                            mEndAction.run();
-                        }
-                    }
-                }
-        );
-
-        // - If to view exists, show and translate the "to view".
-        if (this.mToView != null) {
-            RevealatorHelper.showAndTranslateView(this.mToView, this.mViewToUnreveal, (int) (this.mUnrevealDuration * 0.9f), this.mTranslateDuration, this.mCurvedTranslation, this.mCurveControlPoint, this.mShowFromViewInterpolatedDuration, new Runnable() {
-                        @Override
-                        public void run() {
-                            // - Fire end action if necessary.
-                            if (mEndAction != null) {
-                                mEndAction.run();
-                            }
-                        }
-                    }
-            );
+        if (this.mSpec == null) {
+            this.mSpec = this.mSpecBuilder.build();
         }
+        this.mSpec.unreveal(this.mViewToUnreveal, this.mToView, this.mEndAction, this.mListener);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,290 @@
+package com.jaouan.revealator;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.PointF;
+import android.support.annotation.NonNull;
+import android.support.annotation.StyleRes;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * Immutable and thread-safe "unreveal" configuration, built once and applied to any view.
+ * <p/>
+ * Derived data, like curve tables, is computed once and shared by every unreveal of the spec.
+ */
+public final class UnrevealSpec {
+
+    private final int mUnrevealDuration;
+
+    private final int mTranslateDuration;
+
+    private final float mShowFromViewInterpolatedDuration;
+
+    private final boolean mCurvedTranslation;
+
+    private final PointF mCurveControlPoint;
+
+    private volatile CurveTable mTranslateCurveTable;
+
+    /**
+     * Unreveal spec's constructor.
+     *
+     * @param builder Builder.
+     */
+    private UnrevealSpec(final Builder builder) {
+        mUnrevealDuration = builder.mUnrevealDuration;
+        mTranslateDuration = builder.mTranslateDuration;
+        mShowFromViewInterpolatedDuration = builder.mShowFromViewInterpolatedDuration;
+        mCurvedTranslation = builder.mCurvedTranslation;
+        mCurveControlPoint = builder.mCurveControlPoint != null ? new PointF(builder.mCurveControlPoint.x, builder.mCurveControlPoint.y) : null;
+    }
+
+    /**
+     * Unreveals a view.
+     *
+     * @param viewToUnreveal View to unreveal. Parent must be instance of RevealViewGroup.
+     */
+    public void unreveal(@NonNull final View viewToUnreveal) {
+        unreveal(viewToUnreveal, null, null);
+    }
+
+    /**
+     * Unreveals a view, then translates another view back.
+     *
+     * @param viewToUnreveal View to unreveal. Parent must be instance of RevealViewGroup.
+     * @param toView         View to translate after the unreveal. Can be null.
+     */
+    public void unreveal(@NonNull final View viewToUnreveal, final View toView) {
+        unreveal(viewToUnreveal, toView, null);
+    }
+
+    /**
+     * Unreveals a view, then translates another view back.
+     *
+     * @param viewToUnreveal View to unreveal. Parent must be instance of RevealViewGroup.
+     * @param toView         View to translate after the unreveal. Can be null.
+     * @param endAction      End action callback. Can be null.
+     */
+    public void unreveal(@NonNull final View viewToUnreveal, final View toView, final Runnable endAction) {
+        unreveal(viewToUnreveal, toView, endAction, null);
+    }
+
+    /**
+     * Unreveals a view, then translates another view back.
+     *
+     * @param viewToUnreveal View to unreveal. Parent must be instance of RevealViewGroup.
+     * @param toView         View to translate after the unreveal. Can be null.
+     * @param endAction      End action callback. Can be null.
+     * @param listener       Progress listener. Can be null.
+     */
+    public void unreveal(@NonNull final View viewToUnreveal, final View toView, final Runnable endAction, final RevealListener listener) {
+        // - Coalesce with the animation running on the view, if any. Animation of the last unreveal is reused.
+        final RevealState state = RevealState.obtain(viewToUnreveal);
+        state.request(RevealState.REQUEST_UNREVEAL, state.obtainUnrevealAnimation(this, toView), endAction, listener);
+    }
+
+    /**
+     * Get unreveal duration.
+     *
+     * @return Unreveal duration.
+     */
+    public int getUnrevealDuration() {
+        return mUnrevealDuration;
+    }
+
+    /**
+     * Get translate duration.
+     *
+     * @return Translate duration.
+     */
+    public int getTranslateDuration() {
+        return mTranslateDuration;
+    }
+
+    /**
+     * Get from view's showing animation interpolated duration.
+     *
+     * @return Show from view interpolated duration.
+     */
+    public float getShowFromViewInterpolatedDuration() {
+        return mShowFromViewInterpolatedDuration;
+    }
+
+    /**
+     * Get if translation is curved.
+     *
+     * @return True if translation is curved.
+     */
+    public boolean isCurvedTranslation() {
+        return mCurvedTranslation;
+    }
+
+    /**
+     * Get relative curved control point.
+     *
+     * @return Control point, not to be modified. Can be null.
+     */
+    PointF getCurveControlPoint() {
+        return mCurveControlPoint;
+    }
+
+    /**
+     * Get translate curve table, built on first call and when frame duration changes.
+     *
+     * @param frameDuration Frame duration.
+     * @return Curve table.
+     */
+    CurveTable getTranslateCurveTable(final float frameDuration) {
+        CurveTable translateCurveTable = mTranslateCurveTable;
+        if (translateCurveTable == null || translateCurveTable.getFrameDuration() != frameDuration) {
+            translateCurveTable = UnrevealAnimation.createTranslateCurveTable(mCurvedTranslation, mTranslateDuration, frameDuration);
+            mTranslateCurveTable = translateCurveTable;
+        }
+        return translateCurveTable;
+    }
+
+    /**
+     * Unreveal spec builder.
+     */
+    public static final class Builder {
+
+        private int mUnrevealDuration = 250;
+
+        private int mTranslateDuration = 250;
+
+        private float mShowFromViewInterpolatedDuration = 0.2f;
+
+        private boolean mCurvedTranslation = false;
+
+        private PointF mCurveControlPoint;
+
+        /**
+         * Builder's constructor, with default values.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Builder's constructor, with values of an existing spec.
+         *
+         * @param unrevealSpec Unreveal spec.
+         */
+        public Builder(@NonNull final UnrevealSpec unrevealSpec) {
+            mUnrevealDuration = unrevealSpec.mUnrevealDuration;
+            mTranslateDuration = unrevealSpec.mTranslateDuration;
+            mShowFromViewInterpolatedDuration = unrevealSpec.mShowFromViewInterpolatedDuration;
+            mCurvedTranslation = unrevealSpec.mCurvedTranslation;
+            mCurveControlPoint = unrevealSpec.mCurveControlPoint;
+        }
+
+        /**
+         * Defines values from XML attributes. Attributes are the {@code revealator_*} ones of {@code UnrevealSpec} styleable.
+         *
+         * @param context      Context.
+         * @param attributeSet Attributes.
+         * @return Builder.
+         */
+        public Builder withAttributes(@NonNull final Context context, final AttributeSet attributeSet) {
+            final TypedArray typedArray = context.obtainStyledAttributes(attributeSet, R.styleable.UnrevealSpec, 0, 0);
+            readTypedArray(typedArray);
+            typedArray.recycle();
+            return this;
+        }
+
+        /**
+         * Defines values from a style. Attributes are the {@code revealator_*} ones of {@code UnrevealSpec} styleable.
+         *
+         * @param context    Context.
+         * @param styleResId Style resource.
+         * @return Builder.
+         */
+        public Builder withStyle(@NonNull final Context context, @StyleRes final int styleResId) {
+            final TypedArray typedArray = context.obtainStyledAttributes(styleResId, R.styleable.UnrevealSpec);
+            readTypedArray(typedArray);
+            typedArray.recycle();
+            return this;
+        }
+
+        /**
+         * Reads defined values of a typed array.
+         *
+         * @param typedArray Typed array.
+         */
+        private void readTypedArray(final TypedArray typedArray) {
+            mTranslateDuration = typedArray.getInt(R.styleable.UnrevealSpec_revealator_translateDuration, mTranslateDuration);
+            mUnrevealDuration = typedArray.getInt(R.styleable.UnrevealSpec_revealator_unrevealDuration, mUnrevealDuration);
+            mShowFromViewInterpolatedDuration = typedArray.getFloat(R.styleable.UnrevealSpec_revealator_showFromViewInterpolatedDuration, mShowFromViewInterpolatedDuration);
+            mCurvedTranslation = typedArray.getBoolean(R.styleable.UnrevealSpec_revealator_curvedTranslation, mCurvedTranslation);
+            if (typedArray.hasValue(R.styleable.UnrevealSpec_revealator_curveControlPointX) && typedArray.hasValue(R.styleable.UnrevealSpec_revealator_curveControlPointY)) {
+                mCurveControlPoint = new PointF(typedArray.getDimension(R.styleable.UnrevealSpec_revealator_curveControlPointX, 0), typedArray.getDimension(R.styleable.UnrevealSpec_revealator_curveControlPointY, 0));
+                mCurvedTranslation = true;
+            }
+        }
+
+        /**
+         * Defines the unreveal duration.
+         *
+         * @param unrevealDuration Unreveal duration.
+         * @return Builder.
+         */
+        public Builder withUnrevealDuration(final int unrevealDuration) {
+            mUnrevealDuration = unrevealDuration;
+            return this;
+        }
+
+        /**
+         * Defines the translate duration.
+         *
+         * @param translateDuration translate duration.
+         * @return Builder.
+         */
+        public Builder withTranslateDuration(final int translateDuration) {
+            mTranslateDuration = translateDuration;
+            return this;
+        }
+
+        /**
+         * Defines from view's showing animation interpolated duration.
+         *
+         * @param showFromViewInterpolatedDuration Ends showing from view interpolated duration. Must be between 0 and 1. (default : 0.2f)
+         * @return Builder.
+         */
+        public Builder withShowFromViewInterpolatedDuration(final float showFromViewInterpolatedDuration) {
+            mShowFromViewInterpolatedDuration = showFromViewInterpolatedDuration;
+            return this;
+        }
+
+        /**
+         * Defines that translation must be curved.
+         *
+         * @return Builder.
+         */
+        public Builder withCurvedTranslation() {
+            mCurvedTranslation = true;
+            return this;
+        }
+
+        /**
+         * Defines that translation must be curved.
+         *
+         * @param curveControlPoint Relative curved control point.
+         * @return Builder.
+         */
+        public Builder withCurvedTranslation(final PointF curveControlPoint) {
+            mCurveControlPoint = curveControlPoint;
+            return withCurvedTranslation();
+        }
+
+        /**
+         * Builds the spec.
+         *
+         * @return Unreveal spec.
+         */
+        public UnrevealSpec build() {
+            return new UnrevealSpec(this);
+        }
+
+    }
+
+}
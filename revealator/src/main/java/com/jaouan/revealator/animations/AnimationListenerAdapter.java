@@ -4,7 +4,11 @@ import android.view.animation.Animation;
 
 /**
  * Animation listener adapter.
+ *
+ * @deprecated Revealator does not use view animations anymore, reveals and unreveals are ticked by a shared frame callback.
+ * Use {@link com.jaouan.revealator.RevealListenerAdapter} to follow them.
  */
+@Deprecated
 public class AnimationListenerAdapter implements Animation.AnimationListener {
 
     @Override
@@ -7,7 +7,11 @@ import android.view.animation.Transformation;
 /**
  * Arc translate animation.
  * Based on snippet https://gist.github.com/guohai/2293628.
+ *
+ * @deprecated Revealator does not use view animations anymore : curved translations are sampled once per display frame and ticked by a shared frame callback.
+ * Use {@link com.jaouan.revealator.RevealSpec.Builder#withCurvedTranslation()}.
  */
+@Deprecated
 public class BezierTranslateAnimation extends Animation {
 
     private int mFromXType = ABSOLUTE;
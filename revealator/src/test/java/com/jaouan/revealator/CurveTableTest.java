@@ -0,0 +1,110 @@
+package com.jaouan.revealator;
+
+import android.graphics.PointF;
+import android.view.animation.Interpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Curve table's sampling and lookup.
+ */
+public class CurveTableTest {
+
+    private static final float DELTA = 0.0001f;
+
+    private static final float FRAME_DURATION_60HZ = 1000 / 60f;
+
+    private static final Interpolator LINEAR_INTERPOLATOR = new Interpolator() {
+        @Override
+        public float getInterpolation(final float input) {
+            return input;
+        }
+    };
+
+    private static final Interpolator QUADRATIC_INTERPOLATOR = new Interpolator() {
+        @Override
+        public float getInterpolation(final float input) {
+            return input * input;
+        }
+    };
+
+    private final PointF mPosition = new PointF();
+
+    @Test
+    public void evaluate_startAndEnd() throws Exception {
+        final CurveTable curveTable = new CurveTable(QUADRATIC_INTERPOLATOR, true, 3, FRAME_DURATION_60HZ);
+
+        curveTable.evaluate(0, 1, 2, 10, 0, 10, 10, mPosition);
+        assertPosition(1, 2);
+
+        curveTable.evaluate(1, 1, 2, 10, 0, 10, 10, mPosition);
+        assertPosition(10, 10);
+    }
+
+    @Test
+    public void evaluate_clampsTime() throws Exception {
+        final CurveTable curveTable = new CurveTable(LINEAR_INTERPOLATOR, false, 3, FRAME_DURATION_60HZ);
+
+        curveTable.evaluate(-1, 0, 0, 0, 0, 10, 20, mPosition);
+        assertPosition(0, 0);
+
+        curveTable.evaluate(2, 0, 0, 0, 0, 10, 20, mPosition);
+        assertPosition(10, 20);
+    }
+
+    @Test
+    public void evaluate_straightLineAtSample() throws Exception {
+        final CurveTable curveTable = new CurveTable(QUADRATIC_INTERPOLATOR, false, 3, FRAME_DURATION_60HZ);
+
+        curveTable.evaluate(.5f, 0, 0, 100, 100, 10, 20, mPosition);
+
+        // - Control point is ignored.
+        assertPosition(2.5f, 5);
+    }
+
+    @Test
+    public void evaluate_interpolatesLinearlyBetweenSamples() throws Exception {
+        final CurveTable curveTable = new CurveTable(QUADRATIC_INTERPOLATOR, false, 3, FRAME_DURATION_60HZ);
+
+        // - Samples are 0, .25 and 1.
+        curveTable.evaluate(.25f, 0, 0, 0, 0, 10, 10, mPosition);
+        assertPosition(1.25f, 1.25f);
+
+        curveTable.evaluate(.75f, 0, 0, 0, 0, 10, 10, mPosition);
+        assertPosition(6.25f, 6.25f);
+    }
+
+    @Test
+    public void evaluate_curvedAtSample() throws Exception {
+        final CurveTable curveTable = new CurveTable(LINEAR_INTERPOLATOR, true, 3, FRAME_DURATION_60HZ);
+
+        curveTable.evaluate(.5f, 0, 0, 10, 0, 10, 10, mPosition);
+
+        // - Quadratic Bezier curve at .5 : control weight .5, end weight .25.
+        assertPosition(7.5f, 2.5f);
+    }
+
+    @Test
+    public void create_samplesOncePerFrame() throws Exception {
+        final CurveTable curveTable = CurveTable.create(QUADRATIC_INTERPOLATOR, false, 250, FRAME_DURATION_60HZ);
+        assertEquals(FRAME_DURATION_60HZ, curveTable.getFrameDuration(), 0);
+
+        // - 15 frames, so the first frame is a sample.
+        curveTable.evaluate(1 / 15f, 0, 0, 0, 0, 225, 0, mPosition);
+        assertPosition(1, 0);
+    }
+
+    /**
+     * Asserts the evaluated position.
+     *
+     * @param x Expected X.
+     * @param y Expected Y.
+     */
+    private void assertPosition(final float x, final float y) {
+        assertEquals(x, mPosition.x, DELTA);
+        assertEquals(y, mPosition.y, DELTA);
+    }
+
+}
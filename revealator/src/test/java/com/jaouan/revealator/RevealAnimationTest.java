@@ -0,0 +1,156 @@
+package com.jaouan.revealator;
+
+import android.os.IBinder;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reveal animation's cancellation.
+ */
+public class RevealAnimationTest {
+
+    private static final float FRAME_DURATION = 1000 / 60f;
+
+    private static final long START_TIME_NANOS = 1000000000L;
+
+    private TrackingView mViewToReveal;
+
+    private TrackingView mFromView;
+
+    private RevealAnimation mAnimation;
+
+    @Before
+    public void setUp() throws Exception {
+        final RevealSpec spec = new RevealSpec.Builder().build();
+        mViewToReveal = new TrackingView();
+        mViewToReveal.setVisibility(View.INVISIBLE);
+        mFromView = new TrackingView();
+        mFromView.setTranslationX(5);
+        mFromView.setTranslationY(7);
+        mFromView.setScaleX(2);
+        mFromView.setScaleY(3);
+        mAnimation = new RevealAnimation(new RevealSession(spec, mViewToReveal, mFromView));
+        mAnimation.prepare(new RevealPlan.Task(spec, 0, null, FRAME_DURATION), null, null);
+    }
+
+    @Test
+    public void onCancel_duringTranslateOnDetachedView() throws Exception {
+        mAnimation.onFrame(START_TIME_NANOS);
+        mAnimation.onFrame(START_TIME_NANOS + 100 * RevealatorHelper.NANOS_PER_MILLI);
+
+        mAnimation.onCancel();
+
+        assertEquals(View.VISIBLE, mViewToReveal.getVisibility());
+        assertEquals(View.INVISIBLE, mFromView.getVisibility());
+        assertEquals(5, mFromView.getTranslationX(), 0);
+        assertEquals(7, mFromView.getTranslationY(), 0);
+        assertEquals(2, mFromView.getScaleX(), 0);
+        assertEquals(3, mFromView.getScaleY(), 0);
+    }
+
+    @Test
+    public void onCancel_beforeFirstFrame() throws Exception {
+        mAnimation.onCancel();
+
+        assertEquals(View.VISIBLE, mViewToReveal.getVisibility());
+        assertEquals(View.INVISIBLE, mFromView.getVisibility());
+        assertEquals(5, mFromView.getTranslationX(), 0);
+        assertEquals(2, mFromView.getScaleX(), 0);
+    }
+
+    /**
+     * Detached view, keeping the properties set by the animation. Creating a reveal animator on it fails the test.
+     */
+    private static class TrackingView extends View {
+
+        private final Map<Integer, Object> mTags = new HashMap<>();
+
+        private int mVisibility = View.VISIBLE;
+
+        private float mTranslationX;
+
+        private float mTranslationY;
+
+        private float mScaleX = 1;
+
+        private float mScaleY = 1;
+
+        TrackingView() {
+            super(null);
+        }
+
+        @Override
+        public IBinder getWindowToken() {
+            throw new AssertionError("Reveal animator created on a detached view.");
+        }
+
+        @Override
+        public Object getTag(final int key) {
+            return mTags.get(key);
+        }
+
+        @Override
+        public void setTag(final int key, final Object tag) {
+            mTags.put(key, tag);
+        }
+
+        @Override
+        public int getVisibility() {
+            return mVisibility;
+        }
+
+        @Override
+        public void setVisibility(final int visibility) {
+            mVisibility = visibility;
+        }
+
+        @Override
+        public float getTranslationX() {
+            return mTranslationX;
+        }
+
+        @Override
+        public void setTranslationX(final float translationX) {
+            mTranslationX = translationX;
+        }
+
+        @Override
+        public float getTranslationY() {
+            return mTranslationY;
+        }
+
+        @Override
+        public void setTranslationY(final float translationY) {
+            mTranslationY = translationY;
+        }
+
+        @Override
+        public float getScaleX() {
+            return mScaleX;
+        }
+
+        @Override
+        public void setScaleX(final float scaleX) {
+            mScaleX = scaleX;
+        }
+
+        @Override
+        public float getScaleY() {
+            return mScaleY;
+        }
+
+        @Override
+        public void setScaleY(final float scaleY) {
+            mScaleY = scaleY;
+        }
+
+    }
+
+}
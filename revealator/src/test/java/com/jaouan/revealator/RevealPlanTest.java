@@ -0,0 +1,70 @@
+package com.jaouan.revealator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reveal plan's childs grouping by row.
+ */
+public class RevealPlanTest {
+
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void groupByRow_singleChild() throws Exception {
+        final float[] childsBounds = {10, 20, 30, 60};
+        final int[] childsGroups = new int[1];
+        final float[] childsPivots = new float[2];
+
+        assertEquals(1, RevealPlan.groupByRow(childsBounds, 1, childsGroups, childsPivots));
+        assertArrayEquals(new int[]{0}, childsGroups);
+        assertArrayEquals(new float[]{10, 20}, childsPivots, DELTA);
+    }
+
+    @Test
+    public void groupByRow_unsortedChilds() throws Exception {
+        // - Second row first, then first row from right to left.
+        final float[] childsBounds = {
+                0, 100, 50, 150,
+                60, 0, 110, 50,
+                0, 0, 50, 50
+        };
+        final int[] childsGroups = new int[3];
+        final float[] childsPivots = new float[6];
+
+        assertEquals(2, RevealPlan.groupByRow(childsBounds, 3, childsGroups, childsPivots));
+        assertArrayEquals(new int[]{1, 0, 0}, childsGroups);
+        // - First row spans 0..110 x 0..50, second row is the child itself.
+        assertArrayEquals(new float[]{25, 25, -5, 25, 55, 25}, childsPivots, DELTA);
+    }
+
+    @Test
+    public void groupByRow_mixedHeights() throws Exception {
+        // - A tall child keeps shorter childs beside it in its row, until a child's center is below the row.
+        final float[] childsBounds = {
+                0, 0, 50, 100,
+                60, 0, 110, 30,
+                60, 40, 110, 70,
+                0, 110, 110, 140
+        };
+        final int[] childsGroups = new int[4];
+        final float[] childsPivots = new float[8];
+
+        assertEquals(2, RevealPlan.groupByRow(childsBounds, 4, childsGroups, childsPivots));
+        assertArrayEquals(new int[]{0, 0, 0, 1}, childsGroups);
+        assertEquals(55, childsPivots[0], DELTA);
+        assertEquals(50, childsPivots[1], DELTA);
+        assertEquals(-5, childsPivots[4], DELTA);
+        assertEquals(10, childsPivots[5], DELTA);
+        assertEquals(55, childsPivots[6], DELTA);
+        assertEquals(15, childsPivots[7], DELTA);
+    }
+
+    @Test
+    public void groupByRow_noChilds() throws Exception {
+        assertEquals(0, RevealPlan.groupByRow(new float[0], 0, new int[0], new float[0]));
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.jaouan.revealator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reveal state's requests coalescing.
+ */
+public class RevealStateTest {
+
+    private RevealState mState;
+
+    private FakeStarter mRevealStarter;
+
+    private FakeStarter mUnrevealStarter;
+
+    @Before
+    public void setUp() throws Exception {
+        mState = new RevealState(null);
+        mRevealStarter = new FakeStarter(RevealState.REQUEST_REVEAL);
+        mUnrevealStarter = new FakeStarter(RevealState.REQUEST_UNREVEAL);
+    }
+
+    @Test
+    public void request_startsNowWhenIdle() throws Exception {
+        final CountingAction endAction = new CountingAction();
+
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, endAction, null);
+
+        assertEquals(1, mRevealStarter.mStartsCount);
+        assertEquals(endAction, mRevealStarter.mLastEndAction);
+    }
+
+    @Test
+    public void request_revealUnrevealRevealWhileRunning() throws Exception {
+        final CountingAction unrevealEndAction = new CountingAction();
+        final CountingAction secondRevealEndAction = new CountingAction();
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, null, null);
+
+        // - Unreveal waits, then is canceled by a reveal, redundant with the running one.
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, unrevealEndAction, null);
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, secondRevealEndAction, null);
+        assertEquals(1, mRevealStarter.mStartsCount);
+        assertEquals(0, secondRevealEndAction.mCount);
+
+        mState.onSettled(mRevealStarter.mTickable);
+
+        assertEquals(1, mRevealStarter.mStartsCount);
+        assertEquals(0, mUnrevealStarter.mStartsCount);
+        assertEquals(1, secondRevealEndAction.mCount);
+        assertEquals(0, unrevealEndAction.mCount);
+    }
+
+    @Test
+    public void request_replacedPendingEndActionFiresWhenReplacingRequestSettles() throws Exception {
+        final CountingAction firstUnrevealEndAction = new CountingAction();
+        final CountingAction secondUnrevealEndAction = new CountingAction();
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, null, null);
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, firstUnrevealEndAction, null);
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, secondUnrevealEndAction, null);
+
+        // - Newest unreveal starts with its own end action, called by its animation.
+        mState.onSettled(mRevealStarter.mTickable);
+        assertEquals(1, mUnrevealStarter.mStartsCount);
+        assertEquals(secondUnrevealEndAction, mUnrevealStarter.mLastEndAction);
+        assertEquals(0, firstUnrevealEndAction.mCount);
+
+        mState.onSettled(mUnrevealStarter.mTickable);
+        assertEquals(1, firstUnrevealEndAction.mCount);
+        assertEquals(0, secondUnrevealEndAction.mCount);
+    }
+
+    @Test
+    public void cancel_dropsPendingAndCoalescedEndActions() throws Exception {
+        final CountingAction coalescedEndAction = new CountingAction();
+        final CountingAction firstUnrevealEndAction = new CountingAction();
+        final CountingAction secondUnrevealEndAction = new CountingAction();
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, null, null);
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, coalescedEndAction, null);
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, firstUnrevealEndAction, null);
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, secondUnrevealEndAction, null);
+
+        mState.cancel();
+
+        assertEquals(0, coalescedEndAction.mCount);
+        assertEquals(0, firstUnrevealEndAction.mCount);
+        assertEquals(0, secondUnrevealEndAction.mCount);
+        assertEquals(0, mUnrevealStarter.mStartsCount);
+
+        // - Nothing runs anymore, so next request starts now.
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, null, null);
+        assertEquals(1, mUnrevealStarter.mStartsCount);
+        mState.onSettled(mUnrevealStarter.mTickable);
+        assertEquals(0, firstUnrevealEndAction.mCount);
+    }
+
+    @Test
+    public void onSettled_requestFromEndActionStartsBeforePendingRequest() throws Exception {
+        final CountingAction pendingRevealEndAction = new CountingAction();
+        final FakeStarter reentrantRevealStarter = new FakeStarter(RevealState.REQUEST_REVEAL);
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, null, null);
+        mState.request(RevealState.REQUEST_UNREVEAL, mUnrevealStarter, new Runnable() {
+            @Override
+            public void run() {
+                mState.request(RevealState.REQUEST_REVEAL, reentrantRevealStarter, null, null);
+            }
+        }, null);
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, pendingRevealEndAction, null);
+
+        // - End action's reveal starts, and the pending reveal is redundant with it.
+        mState.onSettled(mUnrevealStarter.mTickable);
+        assertEquals(1, reentrantRevealStarter.mStartsCount);
+        assertEquals(0, mRevealStarter.mStartsCount);
+        assertEquals(0, pendingRevealEndAction.mCount);
+
+        mState.onSettled(reentrantRevealStarter.mTickable);
+        assertEquals(1, pendingRevealEndAction.mCount);
+        assertEquals(0, mRevealStarter.mStartsCount);
+    }
+
+    @Test
+    public void onSettled_ignoresOtherTickables() throws Exception {
+        final CountingAction coalescedEndAction = new CountingAction();
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, null, null);
+        mState.request(RevealState.REQUEST_REVEAL, mRevealStarter, coalescedEndAction, null);
+
+        mState.onSettled(new FakeTickable());
+
+        assertEquals(0, coalescedEndAction.mCount);
+    }
+
+    /**
+     * Starter reporting a fake animation as started.
+     */
+    private final class FakeStarter implements RevealState.Starter {
+
+        private final int mRequest;
+
+        private final FakeTickable mTickable = new FakeTickable();
+
+        private int mStartsCount;
+
+        private Runnable mLastEndAction;
+
+        FakeStarter(final int request) {
+            mRequest = request;
+        }
+
+        @Override
+        public void start(final Runnable endAction, final RevealListener listener) {
+            mStartsCount++;
+            mLastEndAction = endAction;
+            mState.onStarted(mRequest, mTickable);
+        }
+
+    }
+
+    /**
+     * Animation never ticked.
+     */
+    private static final class FakeTickable implements RevealatorTicker.Tickable {
+
+        @Override
+        public boolean onFrame(final long frameTimeNanos) {
+            return false;
+        }
+
+        @Override
+        public void onCancel() {
+        }
+
+    }
+
+    /**
+     * End action counting its calls.
+     */
+    private static final class CountingAction implements Runnable {
+
+        private int mCount;
+
+        @Override
+        public void run() {
+            mCount++;
+        }
+
+    }
+
+}
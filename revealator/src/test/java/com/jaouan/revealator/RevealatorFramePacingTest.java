@@ -0,0 +1,64 @@
+package com.jaouan.revealator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Frame pacing's snapping to vsync boundaries.
+ */
+public class RevealatorFramePacingTest {
+
+    private static final float FRAME_DURATION_60HZ = 1000 / 60f;
+
+    private static final float FRAME_DURATION_90HZ = 1000 / 90f;
+
+    private static final float FRAME_DURATION_120HZ = 1000 / 120f;
+
+    @Test
+    public void snapDelay_60Hz() throws Exception {
+        assertEquals(0, RevealatorFramePacing.snapDelay(0, FRAME_DURATION_60HZ));
+        assertEquals(17, RevealatorFramePacing.snapDelay(16, FRAME_DURATION_60HZ));
+        assertEquals(83, RevealatorFramePacing.snapDelay(90, FRAME_DURATION_60HZ));
+        assertEquals(100, RevealatorFramePacing.snapDelay(92, FRAME_DURATION_60HZ));
+        assertEquals(100, RevealatorFramePacing.snapDelay(100, FRAME_DURATION_60HZ));
+    }
+
+    @Test
+    public void snapDelay_90Hz() throws Exception {
+        assertEquals(11, RevealatorFramePacing.snapDelay(10, FRAME_DURATION_90HZ));
+        assertEquals(44, RevealatorFramePacing.snapDelay(45, FRAME_DURATION_90HZ));
+        assertEquals(56, RevealatorFramePacing.snapDelay(52, FRAME_DURATION_90HZ));
+        assertEquals(100, RevealatorFramePacing.snapDelay(100, FRAME_DURATION_90HZ));
+    }
+
+    @Test
+    public void snapDelay_120Hz() throws Exception {
+        assertEquals(0, RevealatorFramePacing.snapDelay(3, FRAME_DURATION_120HZ));
+        assertEquals(8, RevealatorFramePacing.snapDelay(5, FRAME_DURATION_120HZ));
+        assertEquals(33, RevealatorFramePacing.snapDelay(30, FRAME_DURATION_120HZ));
+        assertEquals(100, RevealatorFramePacing.snapDelay(100, FRAME_DURATION_120HZ));
+    }
+
+    @Test
+    public void snapTime_snapsFromAnchor() throws Exception {
+        assertEquals(1083, RevealatorFramePacing.snapTime(1090, 1000, 2000, FRAME_DURATION_60HZ));
+        assertEquals(1033, RevealatorFramePacing.snapTime(1030, 1000, 2000, FRAME_DURATION_120HZ));
+    }
+
+    @Test
+    public void snapTime_doesNotGoPastCurrentFrame() throws Exception {
+        assertEquals(1095, RevealatorFramePacing.snapTime(1092, 1000, 1095, FRAME_DURATION_60HZ));
+    }
+
+    @Test
+    public void getFramesCount() throws Exception {
+        // - Durations of whole frames are not rounded up by float errors.
+        assertEquals(15, RevealatorFramePacing.getFramesCount(250, FRAME_DURATION_60HZ));
+        assertEquals(16, RevealatorFramePacing.getFramesCount(251, FRAME_DURATION_60HZ));
+        assertEquals(23, RevealatorFramePacing.getFramesCount(250, FRAME_DURATION_90HZ));
+        assertEquals(30, RevealatorFramePacing.getFramesCount(250, FRAME_DURATION_120HZ));
+        assertEquals(1, RevealatorFramePacing.getFramesCount(0, FRAME_DURATION_60HZ));
+    }
+
+}